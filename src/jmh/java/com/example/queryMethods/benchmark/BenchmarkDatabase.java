@@ -0,0 +1,46 @@
+package com.example.queryMethods.benchmark;
+
+import com.example.queryMethods.BulkDataLoader;
+import com.example.queryMethods.QueryMethodsApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application against a fresh in-memory H2 database seeded by the {@link BulkDataLoader},
+ * always with the same random seed so every trial searches the same data.
+ */
+final class BenchmarkDatabase {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final long RANDOM_SEED = 42;
+
+    private BenchmarkDatabase() {
+    }
+
+    static ConfigurableApplicationContext start(int students, int enrollmentDraws, String... properties) {
+        // passed as command line arguments, so they override application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--students.seed.enabled=false",
+                "--students.search.result-cache-enabled=false",
+                "--logging.level.root=warn",
+                "--logging.level.com.example.queryMethods.BulkDataLoader=info"));
+        for (String property : properties) {
+            arguments.add("--" + property);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QueryMethodsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+        seed(context, students, enrollmentDraws);
+        return context;
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int studentCount, int enrollmentDraws) {
+        context.getBean(BulkDataLoader.class).load(studentCount, enrollmentDraws, RANDOM_SEED, CHUNK_SIZE);
+    }
+}
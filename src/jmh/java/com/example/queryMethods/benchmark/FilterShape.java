@@ -0,0 +1,68 @@
+package com.example.queryMethods.benchmark;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.StudentFilter;
+
+import static com.example.queryMethods.InitialTestData.COURSE_NAMES;
+import static com.example.queryMethods.InitialTestData.EMAIL_VENDORS;
+
+/**
+ * The StudentFilter combinations measured by the benchmarks, from a single criterion up to every criterion.
+ */
+public enum FilterShape {
+    NONE,
+    NAME,
+    EMAIL,
+    NAME_EMAIL,
+    AGE_RANGE,
+    ENROLLMENT_COUNT,
+    COURSE,
+    GRADE,
+    COURSE_GRADE,
+    NAME_AGE_COURSE,
+    ALL;
+
+    public StudentFilter filter() {
+        StudentFilter filter = new StudentFilter();
+        switch (this) {
+            case NAME -> filter.setName("doe");
+            case EMAIL -> filter.setEmail(EMAIL_VENDORS[0]);
+            case NAME_EMAIL -> {
+                filter.setName("doe");
+                filter.setEmail(EMAIL_VENDORS[0]);
+            }
+            case AGE_RANGE -> {
+                filter.setAgeGreaterThan(25);
+                filter.setAgeLessThan(35);
+            }
+            case ENROLLMENT_COUNT -> {
+                filter.setEnrollmentsCountGreaterThan(1);
+                filter.setEnrollmentsCountLessThan(4);
+            }
+            case COURSE -> filter.setCourseName(COURSE_NAMES[1]);
+            case GRADE -> filter.setCourseGrade(Grade.A);
+            case COURSE_GRADE -> {
+                filter.setCourseName(COURSE_NAMES[1]);
+                filter.setCourseGrade(Grade.A);
+            }
+            case NAME_AGE_COURSE -> {
+                filter.setName("doe");
+                filter.setAgeGreaterThan(25);
+                filter.setCourseName(COURSE_NAMES[1]);
+            }
+            case ALL -> {
+                filter.setName("doe");
+                filter.setEmail(EMAIL_VENDORS[0]);
+                filter.setAgeGreaterThan(20);
+                filter.setAgeLessThan(45);
+                filter.setEnrollmentsCountGreaterThan(0);
+                filter.setEnrollmentsCountLessThan(8);
+                filter.setCourseName(COURSE_NAMES[1]);
+                filter.setCourseGrade(Grade.A);
+            }
+            default -> {
+            }
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.queryMethods.benchmark;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.CompiledStudentFilter;
+import com.example.queryMethods.planner.FilterCriterion;
+import com.example.queryMethods.search.ParallelFilterExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.example.queryMethods.InitialTestData.COURSE_NAMES;
+import static com.example.queryMethods.InitialTestData.EMAIL_VENDORS;
+
+/**
+ * Filters loaded students in memory, without a database, comparing a chain of per criteria predicates lowering
+ * the needle and the value for every student against the {@link CompiledStudentFilter}, sequentially and split
+ * across the {@link ParallelFilterExecutor} with the default threshold and one thread per processor.
+ * Run with {@code -prof gc} to compare the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InMemoryFilterBenchmark {
+
+    private static final String[] NAMES = {"John Doe", "Jane Roe", "Anna Smith", "Bob Stone", "Carl Doe"};
+
+    @Param({"100000"})
+    public int students;
+
+    @Param({"NAME", "NAME_EMAIL", "COURSE_GRADE", "ALL"})
+    public FilterShape shape;
+
+    private List<Student> loaded;
+    private StudentFilter filter;
+    private List<FilterCriterion> criteria;
+    private ParallelFilterExecutor parallelFilterExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        Random random = new Random(42);
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSE_NAMES.length; i++) {
+            courses.add(persisted(new Course((long) i, COURSE_NAMES[i], 5, new HashSet<>())));
+        }
+        loaded = new ArrayList<>(students);
+        for (long id = 0; id < students; id++) {
+            String email = "student" + id + "@" + EMAIL_VENDORS[random.nextInt(EMAIL_VENDORS.length)];
+            Student student = new Student(id, NAMES[random.nextInt(NAMES.length)] + " " + id,
+                    18 + random.nextInt(40), email, new HashSet<>());
+            int enrollments = random.nextInt(8);
+            for (int i = 0; i < enrollments; i++) {
+                Course course = courses.get(random.nextInt(courses.size()));
+                student.getEnrollments().add(new Enrollment(id * 8 + i, student, course,
+                        Grade.values()[random.nextInt(Grade.values().length)], null));
+            }
+            student.setEnrollmentCount(student.getEnrollments().size());
+            loaded.add(persisted(student));
+        }
+        filter = shape.filter();
+        criteria = Arrays.stream(FilterCriterion.values()).filter(criterion -> criterion.isSet(filter)).toList();
+        parallelFilterExecutor = new ParallelFilterExecutor(new StudentSearchProperties());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallelFilterExecutor.destroy();
+    }
+
+    @Benchmark
+    public List<Student> chainedPredicates() {
+        Predicate<Student> matches = student -> true;
+        for (FilterCriterion criterion : criteria) {
+            matches = matches.and(student -> matches(criterion, student, filter));
+        }
+        return loaded.stream().filter(matches).toList();
+    }
+
+    @Benchmark
+    public List<Student> compiledFilter() {
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter, criteria);
+        List<Student> matching = new ArrayList<>();
+        for (Student student : loaded) {
+            if (compiled.matches(student)) {
+                matching.add(student);
+            }
+        }
+        return matching;
+    }
+
+    @Benchmark
+    public List<Student> compiledFilterInParallel() {
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter, criteria);
+        return parallelFilterExecutor.filter(loaded, compiled::matches);
+    }
+
+    /**
+     * Fills the lower case columns as the entity callback does before the insert, like on students loaded from the database.
+     */
+    private static <T> T persisted(T entity) throws ReflectiveOperationException {
+        Method normalize = entity.getClass().getDeclaredMethod("normalizeSearchColumns");
+        normalize.setAccessible(true);
+        normalize.invoke(entity);
+        return entity;
+    }
+
+    /**
+     * The per criteria evaluation the compiled filter replaces.
+     */
+    private static boolean matches(FilterCriterion criterion, Student student, StudentFilter filter) {
+        return switch (criterion) {
+            case NAME -> contains(student.getName(), filter.getName());
+            case EMAIL -> contains(student.getEmail(), filter.getEmail());
+            case AGE -> inRange(student.getAge(), filter.getAgeGreaterThan(), filter.getAgeLessThan());
+            case ENROLLMENT_COUNT -> inRange(student.getEnrollmentCount(),
+                    filter.getEnrollmentsCountGreaterThan(), filter.getEnrollmentsCountLessThan());
+            case COURSE -> student.getEnrollments().stream().anyMatch(enrollment ->
+                    (filter.getCourseName() == null || contains(enrollment.getCourse().getName(), filter.getCourseName()))
+                            && (filter.getCourseGrade() == null || filter.getCourseGrade().equals(enrollment.getGrade())));
+        };
+    }
+
+    private static boolean contains(String value, String needle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean inRange(int value, Integer greaterThan, Integer lessThan) {
+        return (greaterThan == null || value > greaterThan) && (lessThan == null || value < lessThan);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.queryMethods.benchmark;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.repositories.specifications.StudentSpecifications;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads every student with its enrollments and courses in a read-only and in a read-write transaction.
+ * In the read-write one Hibernate keeps a snapshot of every entity and dirty checks all of them on commit;
+ * run with {@code -prof gc} to compare the allocation per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadOnlySearchBenchmark {
+
+    @Param({"10000"})
+    public int students;
+
+    @Param({"8"})
+    public int enrollmentDraws;
+
+    @Param({"true", "false"})
+    public boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+    private StudentRepository studentRepository;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(students, enrollmentDraws);
+        studentRepository = context.getBean(StudentRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long loadAll() {
+        return transaction.execute(status -> {
+            List<Student> all = studentRepository.findAll(StudentSpecifications.fromFilter(null));
+            return all.stream()
+                    .flatMap(student -> student.getEnrollments().stream())
+                    .filter(enrollment -> enrollment.getCourse().getName() != null)
+                    .count();
+        });
+    }
+}
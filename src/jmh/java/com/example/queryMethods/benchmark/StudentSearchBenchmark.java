@@ -0,0 +1,69 @@
+package com.example.queryMethods.benchmark;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.service.StudentService;
+import com.example.queryMethods.service.StudentServiceBitmapVersion;
+import com.example.queryMethods.service.StudentServiceSecondVersion;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the findAll implementations for every {@link FilterShape}.
+ * Scales are chosen with {@code -p students=1000,100000,1000000 -p enrollmentDraws=2,8};
+ * the throughput and the latency percentiles are reported, {@code -prof gc} adds the allocation rate.
+ * StudentService fetches the ids of every criteria and intersects them, so its cost follows the least selective
+ * criteria rather than the result size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentSearchBenchmark {
+
+    @Param({"1000"})
+    public int students;
+
+    @Param({"8"})
+    public int enrollmentDraws;
+
+    @Param({"StudentService", "StudentServiceSecondVersion", "StudentServiceThirdVersion", "StudentServiceBitmapVersion"})
+    public String engine;
+
+    @Param
+    public FilterShape shape;
+
+    private ConfigurableApplicationContext context;
+    private Function<StudentFilter, List<Student>> findAll;
+    private StudentFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(students, enrollmentDraws);
+        findAll = switch (engine) {
+            case "StudentService" -> context.getBean(StudentService.class)::findAll;
+            case "StudentServiceSecondVersion" -> context.getBean(StudentServiceSecondVersion.class)::findAll;
+            case "StudentServiceThirdVersion" -> context.getBean(StudentServiceThirdVersion.class)::findAll;
+            case "StudentServiceBitmapVersion" -> context.getBean(StudentServiceBitmapVersion.class)::findAll;
+            default -> throw new IllegalArgumentException("unknown engine " + engine);
+        };
+        filter = shape.filter();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Student> findAll() {
+        return findAll.apply(filter);
+    }
+}
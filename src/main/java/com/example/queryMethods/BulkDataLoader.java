@@ -0,0 +1,106 @@
+package com.example.queryMethods;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.EnrollmentCountListener;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.search.SearchDataChangeListener;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.queryMethods.InitialTestData.drawCourses;
+import static com.example.queryMethods.InitialTestData.initCourses;
+import static com.example.queryMethods.InitialTestData.newStudent;
+
+/**
+ * Seeds large amounts of students and enrollments. Students are persisted in chunks, one transaction per chunk,
+ * with pooled sequence ids so hibernate can send the inserts as ordered jdbc batches
+ * (hibernate.jdbc.batch_size, hibernate.order_inserts). The second-level cache is bypassed while loading
+ * and evicted afterwards. No change event is published per row, one reload event follows the whole load.
+ * The same seed always produces the same data.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkDataLoader {
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchDataChangeListener searchDataChangeListener;
+
+    public record LoadReport(int students, long enrollments, long millis) {
+
+        public long rowsPerSecond() {
+            return millis == 0 ? students + enrollments : (students + enrollments) * 1000 / millis;
+        }
+    }
+
+    public LoadReport load(int studentCount, int enrollmentDraws, long seed, int chunkSize) {
+        // the student inserts already carry the final enrollment counts
+        LoadReport report = searchDataChangeListener.withoutEvents(() -> EnrollmentCountListener.withoutCounting(
+                () -> persist(studentCount, enrollmentDraws, seed, chunkSize)));
+        searchDataChangeListener.publishReloaded();
+        log.info("loaded {} students and {} enrollments in {} ms, {} rows/s",
+                report.students(), report.enrollments(), report.millis(), report.rowsPerSecond());
+        return report;
+    }
+
+    private LoadReport persist(int studentCount, int enrollmentDraws, long seed, int chunkSize) {
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+
+        List<Long> courseIds = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            initCourses().forEach(course -> {
+                entityManager.persist(course);
+                ids.add(course.getId());
+            });
+            return ids;
+        });
+
+        long enrollments = 0;
+        for (int from = 1; from <= studentCount; from += chunkSize) {
+            int to = Math.min(studentCount, from + chunkSize - 1);
+            int chunkFrom = from;
+            enrollments += transactionTemplate.execute(status ->
+                    persistChunk(chunkFrom, to, courseIds, enrollmentDraws, random));
+        }
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        return new LoadReport(studentCount, enrollments, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long persistChunk(int from, int to, List<Long> courseIds, int enrollmentDraws, Random random) {
+        // copying every new row into the second-level cache costs more than the insert itself
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        List<Course> courses = courseIds.stream()
+                .map(id -> entityManager.getReference(Course.class, id))
+                .toList();
+        long enrollments = 0;
+        for (int index = from; index <= to; index++) {
+            Student student = newStudent(index, random);
+            Set<Course> chosenCourses = drawCourses(courses, enrollmentDraws, random);
+            student.setEnrollmentCount(chosenCourses.size());
+            entityManager.persist(student);
+            for (Course course : chosenCourses) {
+                entityManager.persist(
+                        new Enrollment(null, student, course, GRADES[random.nextInt(GRADES.length)], "some notes"));
+            }
+            enrollments += chosenCourses.size();
+        }
+        return enrollments;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.queryMethods;
 
+import com.example.queryMethods.config.StudentSeedProperties;
 import com.example.queryMethods.models.entity.Course;
 import com.example.queryMethods.models.entity.Enrollment;
 import com.example.queryMethods.models.entity.Grade;
@@ -10,6 +11,7 @@ import com.example.queryMethods.repositories.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -17,6 +19,7 @@ import java.util.stream.IntStream;
 
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "students.seed.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class InitialTestData implements CommandLineRunner {
 
@@ -35,14 +38,16 @@ public class InitialTestData implements CommandLineRunner {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final BulkDataLoader bulkDataLoader;
+    private final StudentSeedProperties seedProperties;
 
     @Override
     public void run(String... args) throws Exception {
         if(studentRepository.count() == 0) {
-            List<Student> students = initStudents();
-            studentRepository.saveAll(students);
             courseRepository.deleteAll();
-            courseRepository.saveAll(initCoursesWithEnrollments(students));
+            long seed = seedProperties.getRandomSeed() != null ? seedProperties.getRandomSeed() : RANDOM.nextLong();
+            bulkDataLoader.load(seedProperties.getCount(), seedProperties.getEnrollmentDraws(), seed,
+                    seedProperties.getChunkSize());
         }
 
         log.info("student repository count = {}", studentRepository.count());
@@ -51,21 +56,39 @@ public class InitialTestData implements CommandLineRunner {
     }
 
     public static List<Student> initStudents() {
-        List<Student> students = new ArrayList<>();
-        IntStream.range(1, 100).forEach(index -> {
-            String name =
-                    STUDENT_NAMES[RANDOM.nextInt(STUDENT_NAMES.length)]+ " " + index;
-            String email =
-                    name.replace(" ", "").toLowerCase() +
-                            EMAIL_VENDORS[RANDOM.nextInt(EMAIL_VENDORS.length)];
-            int age = RANDOM.nextInt(32) + 18; // from 18 to 50
-
-            students.add(new Student(null, name, age, email, null));
-        });
+        return initStudents(99);
+    }
+
+    public static List<Student> initStudents(int count) {
+        List<Student> students = new ArrayList<>(count);
+        IntStream.rangeClosed(1, count).forEach(index -> students.add(newStudent(index, RANDOM)));
         return students;
     }
 
+    public static Student newStudent(int index, Random random) {
+        String name =
+                STUDENT_NAMES[random.nextInt(STUDENT_NAMES.length)]+ " " + index;
+        String email =
+                name.replace(" ", "").toLowerCase() +
+                        EMAIL_VENDORS[random.nextInt(EMAIL_VENDORS.length)];
+        int age = random.nextInt(32) + 18; // from 18 to 50
+
+        return new Student(null, name, age, email, null);
+    }
+
     public static List<Course> initCoursesWithEnrollments(List<Student> students) {
+        return initCoursesWithEnrollments(students, COURSE_NAMES.length);
+    }
+
+    /**
+     * @param enrollmentDraws random course draws per student, duplicates are dropped,
+     *                        so every student gets at most min(enrollmentDraws, COURSE_NAMES.length) enrollments
+     */
+    public static List<Course> initCoursesWithEnrollments(List<Student> students, int enrollmentDraws) {
+        return initEnrollmentsForAllStudentsInCourses(initCourses(), students, enrollmentDraws);
+    }
+
+    public static List<Course> initCourses() {
         List<Course> courses = new ArrayList<>();
         IntStream.range(0, COURSE_NAMES.length).forEach(index -> {
             Course course = new Course();
@@ -73,20 +96,27 @@ public class InitialTestData implements CommandLineRunner {
             course.setCredits(CREDITS[index]); // CREDITS.length is the same as COURSE_NAMES.length
             courses.add(course);
         });
+        return courses;
+    }
 
-        return initEnrollmentsForAllStudentsInCourses(courses, students);
+    /**
+     * @return the distinct courses picked by enrollmentDraws random draws
+     */
+    public static Set<Course> drawCourses(List<Course> courses, int enrollmentDraws, Random random) {
+        Set<Course> chosenCourses = new LinkedHashSet<>();
+        IntStream.range(0, enrollmentDraws).forEach(innerIndex -> {
+            chosenCourses.add(courses.get(random.nextInt(courses.size())));
+        });
+        return chosenCourses;
     }
 
-    private static List<Course> initEnrollmentsForAllStudentsInCourses(List<Course> courses, List<Student> students) {
+    private static List<Course> initEnrollmentsForAllStudentsInCourses(List<Course> courses, List<Student> students,
+                                                                       int enrollmentDraws) {
         Grade[] grades = Grade.values();
 
         IntStream.range(0, students.size()).forEach(index -> {
             Student student = students.get(index);
-            Set<Course> chosenCourses = new HashSet<>();
-            IntStream.range(0, courses.size()).forEach(innerIndex -> {
-                chosenCourses.add(courses.get(RANDOM.nextInt(courses.size())));
-            });
-            chosenCourses.forEach(course -> {
+            drawCourses(courses, enrollmentDraws, RANDOM).forEach(course -> {
                 course.getEnrollments().add(new Enrollment(
                         null,
                         student,
@@ -0,0 +1,50 @@
+package com.example.queryMethods.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the connections of read-only transactions, e.g. the student searches, to a replica once
+ * {@code students.datasource.read-only.url} is set; everything else keeps using {@code spring.datasource}.
+ * The lazy proxy only picks a pool on the first statement, after the transaction has marked the connection read-only.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ReadOnlyDataSourceConfiguration.PREFIX, name = "url")
+public class ReadOnlyDataSourceConfiguration {
+
+    static final String PREFIX = "students.datasource.read-only";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties(PREFIX + ".hikari")
+    public HikariDataSource readOnlyDataSource(Environment environment) {
+        DataSourceProperties properties = Binder.get(environment).bind(PREFIX, DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException(PREFIX + " is not configured"));
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource writeDataSource, HikariDataSource readOnlyDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readOnlyDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.queryMethods.config;
+
+import com.example.queryMethods.fetch.LazyLoadGuard;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "students.search")
+public class StudentSearchProperties {
+
+    /**
+     * Rows the jdbc driver fetches per round trip while streaming results.
+     */
+    private int streamFetchSize = 500;
+
+    /**
+     * Number of streamed students after which the persistence context is cleared.
+     */
+    private int streamClearInterval = 500;
+
+    /**
+     * Number of streamed search results after which the http response is flushed to the client.
+     */
+    private int streamFlushInterval = 100;
+
+    /**
+     * Narrow name and email searches down with the student_search_token trigram table.
+     * The table is only written while enabled, students saved before have no tokens.
+     */
+    private boolean trigramIndexEnabled = false;
+
+    /**
+     * Resolve name and email searches to candidate ids through the in-memory n-gram index first.
+     */
+    private boolean invertedIndexEnabled = false;
+
+    /**
+     * Candidate id lists above this size are not passed to the database, the index is not selective enough.
+     */
+    private int invertedIndexMaxCandidates = 1000;
+
+    /**
+     * Cache search results by filter until a student, enrollment or course changes.
+     */
+    private boolean resultCacheEnabled = true;
+
+    private long resultCacheMaximumSize = 1000;
+
+    private Duration resultCacheTimeToLive = Duration.ofMinutes(10);
+
+    /**
+     * Run the per criteria id queries of StudentService concurrently, each in its own read-only transaction.
+     */
+    private boolean parallelSubQueriesEnabled = false;
+
+    /**
+     * Threads, and so connections, used for concurrent sub queries, keep it below the connection pool size.
+     */
+    private int subQueryParallelism = 4;
+
+    /**
+     * Width in years of the age buckets of the search facets.
+     */
+    private int facetAgeBucketSize = 5;
+
+    /**
+     * Evaluate the in-memory strategy of StudentServiceSecondVersion against the incrementally maintained
+     * StudentSnapshot instead of loading every student from the database.
+     */
+    private boolean snapshotEnabled = true;
+
+    /**
+     * Candidate lists of at least this size are filtered in memory in parallel chunks, smaller ones sequentially.
+     */
+    private int parallelFilterThreshold = 10_000;
+
+    /**
+     * Threads of the pool filtering candidates in parallel, 1 always filters sequentially.
+     */
+    private int filterParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Planner statistics older than this are gathered again once the data changed.
+     */
+    private Duration plannerStatisticsMaxAge = Duration.ofMinutes(1);
+
+    /**
+     * Names and emails sampled to estimate the selectivity of substring searches.
+     */
+    private int plannerSampleSize = 1000;
+
+    /**
+     * What happens on a lazy collection load inside a {@link LazyLoadGuard} section: off, log or fail.
+     */
+    private LazyLoadGuard.Mode lazyLoadGuard = LazyLoadGuard.Mode.LOG;
+
+    public void setStreamFetchSize(int streamFetchSize) {
+        this.streamFetchSize = positive("stream-fetch-size", streamFetchSize);
+    }
+
+    public void setStreamClearInterval(int streamClearInterval) {
+        this.streamClearInterval = positive("stream-clear-interval", streamClearInterval);
+    }
+
+    public void setSubQueryParallelism(int subQueryParallelism) {
+        this.subQueryParallelism = positive("sub-query-parallelism", subQueryParallelism);
+    }
+
+    public void setFacetAgeBucketSize(int facetAgeBucketSize) {
+        this.facetAgeBucketSize = positive("facet-age-bucket-size", facetAgeBucketSize);
+    }
+
+    public void setFilterParallelism(int filterParallelism) {
+        this.filterParallelism = positive("filter-parallelism", filterParallelism);
+    }
+
+    private static int positive(String property, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("students.search." + property + " must be positive, was " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.queryMethods.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "students.seed")
+public class StudentSeedProperties {
+
+    /**
+     * Seed an empty database on startup.
+     */
+    private boolean enabled = true;
+
+    private int count = 99;
+
+    /**
+     * Random course draws per student, duplicates are dropped.
+     */
+    private int enrollmentDraws = 8;
+
+    /**
+     * Fixed seed for reproducible data, a random seed is used if not set.
+     */
+    private Long randomSeed;
+
+    /**
+     * Students persisted per transaction.
+     */
+    private int chunkSize = 1000;
+
+}
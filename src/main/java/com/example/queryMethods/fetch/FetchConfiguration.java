@@ -0,0 +1,18 @@
+package com.example.queryMethods.fetch;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class FetchConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer lazyLoadGuardCustomizer(LazyLoadGuard lazyLoadGuard) {
+        IntegratorProvider integrators = () -> List.of(new LazyLoadGuardIntegrator(lazyLoadGuard));
+        return properties -> properties.put("hibernate.integrator_provider", integrators);
+    }
+}
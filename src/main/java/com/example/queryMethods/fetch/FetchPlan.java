@@ -0,0 +1,27 @@
+package com.example.queryMethods.fetch;
+
+import com.example.queryMethods.models.entity.Student;
+
+/**
+ * Associations loaded together with the searched students, in the same select as a fetch graph.
+ * Associations outside the plan stay lazy.
+ */
+public enum FetchPlan {
+
+    NONE(null),
+    ENROLLMENTS(Student.GRAPH_ENROLLMENTS),
+    ENROLLMENTS_AND_COURSE(Student.GRAPH_ENROLLMENTS_AND_COURSE);
+
+    private final String graphName;
+
+    FetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    /**
+     * @return the name of the {@link jakarta.persistence.NamedEntityGraph} on {@link Student}, null for {@link #NONE}
+     */
+    public String graphName() {
+        return graphName;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.queryMethods.fetch;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Detects lazy loads, the N+1 selects, while results of a search with a {@link FetchPlan} are used.
+ * Inside {@link #guard(FetchPlan, Supplier)} every lazily initialized collection or proxy was not covered by the plan;
+ * depending on {@code students.search.lazy-load-guard} it is logged or fails with
+ * {@link LazyLoadOutsideFetchPlanException} before the select is sent. Outside a guarded section nothing is checked.
+ * Registered as hibernate event listener by {@link LazyLoadGuardIntegrator}.
+ */
+@Slf4j
+@Component
+public class LazyLoadGuard implements InitializeCollectionEventListener, LoadEventListener {
+
+    public enum Mode {
+        OFF, LOG, FAIL
+    }
+
+    private static final ThreadLocal<FetchPlan> GUARDED_PLAN = new ThreadLocal<>();
+
+    private final Mode mode;
+
+    public LazyLoadGuard(StudentSearchProperties properties) {
+        this.mode = properties.getLazyLoadGuard();
+    }
+
+    public <T> T guard(FetchPlan plan, Supplier<T> action) {
+        if (mode == Mode.OFF) {
+            return action.get();
+        }
+        FetchPlan outer = GUARDED_PLAN.get();
+        GUARDED_PLAN.set(plan);
+        try {
+            return action.get();
+        } finally {
+            if (outer == null) {
+                GUARDED_PLAN.remove();
+            } else {
+                GUARDED_PLAN.set(outer);
+            }
+        }
+    }
+
+    public void guard(FetchPlan plan, Runnable action) {
+        guard(plan, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        if (!event.getCollection().wasInitialized()) {
+            lazyLoad(event.getCollection().getRole(), event.getAffectedOwnerIdOrNull());
+        }
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) {
+        // proxies are initialized with an immediate load, explicit finds use the other load types
+        if (loadType == IMMEDIATE_LOAD) {
+            lazyLoad(event.getEntityClassName(), event.getEntityId());
+        }
+    }
+
+    private void lazyLoad(String role, Object id) {
+        FetchPlan plan = GUARDED_PLAN.get();
+        if (plan == null || mode == Mode.OFF) {
+            return;
+        }
+        if (mode == Mode.FAIL) {
+            throw new LazyLoadOutsideFetchPlanException(role, id, plan);
+        }
+        log.warn("lazy load of {}#{} outside of fetch plan {}", role, id, plan);
+    }
+}
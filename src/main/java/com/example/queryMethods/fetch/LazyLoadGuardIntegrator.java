@@ -0,0 +1,31 @@
+package com.example.queryMethods.fetch;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Puts the {@link LazyLoadGuard} in front of hibernate's own collection initialization and entity loading,
+ * so a guarded lazy load fails before its select is sent.
+ */
+@RequiredArgsConstructor
+public class LazyLoadGuardIntegrator implements Integrator {
+
+    private final LazyLoadGuard lazyLoadGuard;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.prependListeners(EventType.INIT_COLLECTION, lazyLoadGuard);
+        listeners.prependListeners(EventType.LOAD, lazyLoadGuard);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
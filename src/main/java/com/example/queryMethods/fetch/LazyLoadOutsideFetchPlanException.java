@@ -0,0 +1,8 @@
+package com.example.queryMethods.fetch;
+
+public class LazyLoadOutsideFetchPlanException extends IllegalStateException {
+
+    public LazyLoadOutsideFetchPlanException(String role, Object ownerId, FetchPlan plan) {
+        super("lazy load of " + role + "#" + ownerId + " outside of fetch plan " + plan);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.queryMethods.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the sql statements hibernate prepares, in total as the {@code hibernate.sql.statements} counter and
+ * per thread so a single request can read how many statements it fired.
+ * Registered as hibernate statement inspector by {@link MetricsConfiguration}.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> threadCount = ThreadLocal.withInitial(() -> new long[1]);
+    private final Counter statements;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        this.statements = Counter.builder("hibernate.sql.statements")
+                .description("Sql statements prepared by hibernate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        threadCount.get()[0]++;
+        statements.increment();
+        return sql;
+    }
+
+    /**
+     * @return the number of statements the current thread prepared so far, compare two readings to count a section
+     */
+    public long currentThreadCount() {
+        return threadCount.get()[0];
+    }
+}
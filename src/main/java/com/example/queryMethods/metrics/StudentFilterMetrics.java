@@ -0,0 +1,85 @@
+package com.example.queryMethods.metrics;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Records a {@link StudentFilter} search per engine and filter shape: its latency ({@code students.filter}),
+ * the students it returned ({@code students.filter.rows}) and the sql statements it fired
+ * ({@code students.filter.statements}).
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentFilterMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public List<Student> record(String engine, StudentFilter filter, Supplier<List<Student>> search) {
+        Tags tags = Tags.of("engine", engine, "shape", shape(filter));
+        long statementsBefore = sqlStatementCounter.currentThreadCount();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<Student> students = search.get();
+            outcome = "success";
+            DistributionSummary.builder("students.filter.rows")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(students.size());
+            return students;
+        } finally {
+            sample.stop(Timer.builder("students.filter")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            DistributionSummary.builder("students.filter.statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(sqlStatementCounter.currentThreadCount() - statementsBefore);
+        }
+    }
+
+    /**
+     * @return the criteria set on the filter, e.g. {@code name+age}, or {@code none}
+     */
+    public static String shape(StudentFilter filter) {
+        if (filter == null) {
+            return "none";
+        }
+        StringJoiner shape = new StringJoiner("+");
+        shape.setEmptyValue("none");
+        if (filter.getId() != null) {
+            shape.add("id");
+        }
+        if (filter.getName() != null) {
+            shape.add("name");
+        }
+        if (filter.getEmail() != null) {
+            shape.add("email");
+        }
+        if (filter.getAgeGreaterThan() != null || filter.getAgeLessThan() != null) {
+            shape.add("age");
+        }
+        if (filter.getEnrollmentsCountGreaterThan() != null || filter.getEnrollmentsCountLessThan() != null) {
+            shape.add("enrollmentsCount");
+        }
+        if (filter.getCourseName() != null) {
+            shape.add("courseName");
+        }
+        if (filter.getCourseGrade() != null) {
+            shape.add("courseGrade");
+        }
+        return shape.toString();
+    }
+}
@@ -1,29 +1,57 @@
 package com.example.queryMethods.models.entity;
 
+import com.example.queryMethods.search.NGrams;
+import com.example.queryMethods.search.SearchDataChangeListener;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
+@EntityListeners(SearchDataChangeListener.class)
+@Table(indexes = @Index(name = "idx_course_name_lower", columnList = "name_lower"))
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Course {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
+    @SequenceGenerator(name = "course_seq", sequenceName = "course_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private int credits;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-enrollments")
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL)
     private Set<Enrollment> enrollments = new HashSet<>();
 
-}
+    /**
+     * Lower case copy of the name, searched without applying lower() to every row.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_lower")
+    private String nameLower;
+
+    public Course(Long id, String name, int credits, Set<Enrollment> enrollments) {
+        this.id = id;
+        this.name = name;
+        this.credits = credits;
+        this.enrollments = enrollments;
+    }
 
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        nameLower = NGrams.normalize(name);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.queryMethods.models.entity;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Registers the {@link EnrollmentCountListener}, after hibernate's own flush listeners so it runs once the
+ * flushed inserts and deletes were executed. Found by hibernate through {@code META-INF/services}.
+ */
+public class EnrollmentCountIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        EnrollmentCountListener enrollmentCountListener = new EnrollmentCountListener();
+        listeners.appendListeners(EventType.POST_INSERT, enrollmentCountListener);
+        listeners.appendListeners(EventType.POST_DELETE, enrollmentCountListener);
+        listeners.appendListeners(EventType.FLUSH, enrollmentCountListener);
+        listeners.appendListeners(EventType.AUTO_FLUSH, enrollmentCountListener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.queryMethods.models.entity;
+
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps {@link Student#getEnrollmentCount()} in sync when enrollments are inserted or deleted.
+ * Inserts and deletes only collect the change per student, the end of the flush that wrote them adds the changes
+ * to the column in one statement batch. The count is right in the flushing transaction whether the student is
+ * managed, detached or not loaded at all, e.g. when enrollments are cascaded from {@link Course}, and concurrent
+ * enrollments of the same student do not overwrite each other. Loaded students keep the count they were loaded with.
+ * Registered as hibernate event listener by {@link EnrollmentCountIntegrator}.
+ * Bulk loads that write the final count with the student run {@link #withoutCounting(Supplier)}.
+ */
+public class EnrollmentCountListener implements PostInsertEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    private static final String UPDATE_COUNT = "UPDATE student SET enrollment_count = enrollment_count + ? WHERE id = ?";
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = ThreadLocal.withInitial(() -> false);
+
+    // changes per student id of the running flush of a session, sorted so concurrent flushes lock students in order
+    private final Map<EventSource, SortedMap<Long, Integer>> pending = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Enrollment enrollment) {
+            add(event.getSession(), enrollment, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Enrollment enrollment) {
+            add(event.getSession(), enrollment, -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        write(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        write(event.getSession());
+    }
+
+    /**
+     * Runs the action without updating the enrollment counts of the enrollments it writes on the current thread.
+     */
+    public static <T> T withoutCounting(Supplier<T> action) {
+        boolean previous = SUPPRESSED.get();
+        SUPPRESSED.set(true);
+        try {
+            return action.get();
+        } finally {
+            SUPPRESSED.set(previous);
+        }
+    }
+
+    private void add(EventSource session, Enrollment enrollment, int delta) {
+        Student student = enrollment.getStudent();
+        if (student == null || student.getId() == null || SUPPRESSED.get()) {
+            return;
+        }
+        // the id of a lazy student proxy is read without initializing it
+        pending.computeIfAbsent(session, key -> new TreeMap<>()).merge(student.getId(), delta, Integer::sum);
+    }
+
+    private void write(EventSource session) {
+        SortedMap<Long, Integer> deltas = pending.remove(session);
+        if (deltas == null || deltas.values().stream().allMatch(delta -> delta == 0)) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_COUNT)) {
+                for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                    if (delta.getValue() != 0) {
+                        statement.setInt(1, delta.getValue());
+                        statement.setLong(2, delta.getKey());
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
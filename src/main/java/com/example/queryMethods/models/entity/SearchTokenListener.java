@@ -0,0 +1,28 @@
+package com.example.queryMethods.models.entity;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Keeps the trigram token table of a {@link Student} in sync with its name and email,
+ * only while {@link StudentSearchProperties#isTrigramIndexEnabled()} so students are written without
+ * the token rows when no search reads them.
+ */
+public class SearchTokenListener {
+
+    private final StudentSearchProperties properties;
+
+    // created by spring while the entity manager factory is built
+    public SearchTokenListener(StudentSearchProperties properties) {
+        this.properties = properties;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite(Student student) {
+        if (properties.isTrigramIndexEnabled()) {
+            student.updateSearchTokens();
+        }
+    }
+}
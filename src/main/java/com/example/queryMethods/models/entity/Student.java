@@ -1,27 +1,105 @@
 package com.example.queryMethods.models.entity;
 
+import com.example.queryMethods.search.NGrams;
+import com.example.queryMethods.search.SearchDataChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners({SearchTokenListener.class, SearchDataChangeListener.class})
+@NamedEntityGraph(name = Student.GRAPH_ENROLLMENTS, attributeNodes = @NamedAttributeNode("enrollments"))
+@NamedEntityGraph(name = Student.GRAPH_ENROLLMENTS_AND_COURSE,
+        attributeNodes = @NamedAttributeNode(value = "enrollments", subgraph = "enrollment.course"),
+        subgraphs = @NamedSubgraph(name = "enrollment.course", attributeNodes = @NamedAttributeNode("course")))
+@Table(indexes = {
+        @Index(name = "idx_student_enrollment_count", columnList = "enrollment_count"),
+        @Index(name = "idx_student_name_lower", columnList = "name_lower"),
+        @Index(name = "idx_student_email_lower", columnList = "email_lower")
+})
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class Student {
+    public static final String NAME_TOKEN_PREFIX = "n:";
+    public static final String EMAIL_TOKEN_PREFIX = "e:";
+    public static final String GRAPH_ENROLLMENTS = "Student.enrollments";
+    public static final String GRAPH_ENROLLMENTS_AND_COURSE = "Student.enrollmentsAndCourse";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "student_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private int age;
     private String email;
 
+    /**
+     * Denormalized size of {@link #enrollments}, kept in sync by {@link EnrollmentCountListener}
+     * so enrollment count filters are a range scan on an indexed column instead of a count per student.
+     * Only written on insert and by the listener's update, saving a stale instance cannot overwrite it.
+     */
+    @Column(name = "enrollment_count", nullable = false, updatable = false)
+    private int enrollmentCount;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-enrollments")
     @OneToMany(mappedBy = "student", cascade = CascadeType.REMOVE)
     private Set<Enrollment> enrollments;
 
-}
+    /**
+     * Lower case copies of name and email, searched without applying lower() to every row.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_lower")
+    private String nameLower;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_lower")
+    private String emailLower;
+
+    /**
+     * Trigrams of name and email prefixed with {@link #NAME_TOKEN_PREFIX} or {@link #EMAIL_TOKEN_PREFIX},
+     * an indexed token table used to narrow down substring searches.
+     * Only written by {@link SearchTokenListener} while the trigram index is enabled.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ElementCollection
+    @CollectionTable(name = "student_search_token",
+            joinColumns = @JoinColumn(name = "student_id"),
+            indexes = @Index(name = "idx_student_search_token", columnList = "token"))
+    @Column(name = "token", nullable = false)
+    private Set<String> searchTokens = new HashSet<>();
 
+    public Student(Long id, String name, int age, String email, Set<Enrollment> enrollments) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.email = email;
+        this.enrollments = enrollments;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        nameLower = NGrams.normalize(name);
+        emailLower = NGrams.normalize(email);
+    }
+
+    void updateSearchTokens() {
+        Set<String> tokens = new HashSet<>();
+        NGrams.trigrams(name).forEach(gram -> tokens.add(NAME_TOKEN_PREFIX + gram));
+        NGrams.trigrams(email).forEach(gram -> tokens.add(EMAIL_TOKEN_PREFIX + gram));
+        if (!tokens.equals(searchTokens)) {
+            searchTokens.retainAll(tokens);
+            searchTokens.addAll(tokens);
+        }
+    }
+
+}
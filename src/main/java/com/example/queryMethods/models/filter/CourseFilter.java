@@ -0,0 +1,15 @@
+package com.example.queryMethods.models.filter;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CourseFilter {
+
+    private String name;
+
+    private Integer creditsGreaterThan;
+    private Integer creditsLessThan;
+
+}
@@ -0,0 +1,23 @@
+package com.example.queryMethods.models.filter;
+
+import com.example.queryMethods.models.entity.Grade;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class EnrollmentFilter {
+
+    private Long studentId;
+    private String studentName;
+    private Integer studentAgeGreaterThan;
+    private Integer studentAgeLessThan;
+
+    private Long courseId;
+    private String courseName;
+
+    private Grade grade;
+
+    private String notes;
+
+}
@@ -0,0 +1,7 @@
+package com.example.queryMethods.models.projection;
+
+/**
+ * Read only view of a {@link com.example.queryMethods.models.entity.Course} without its enrollments.
+ */
+public record CourseSummary(Long id, String name, int credits) {
+}
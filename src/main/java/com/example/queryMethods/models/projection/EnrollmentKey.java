@@ -0,0 +1,9 @@
+package com.example.queryMethods.models.projection;
+
+import com.example.queryMethods.models.entity.Grade;
+
+/**
+ * The id, foreign keys and grade of an {@link com.example.queryMethods.models.entity.Enrollment}, without the notes.
+ */
+public record EnrollmentKey(Long id, Long studentId, Long courseId, Grade grade) {
+}
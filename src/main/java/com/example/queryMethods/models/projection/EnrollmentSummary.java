@@ -0,0 +1,11 @@
+package com.example.queryMethods.models.projection;
+
+import com.example.queryMethods.models.entity.Grade;
+
+/**
+ * Read only view of a {@link com.example.queryMethods.models.entity.Enrollment} with the name of its student and
+ * course, selected with a constructor expression from the enrollment table joined to both, no entity is loaded.
+ */
+public record EnrollmentSummary(Long id, Long studentId, String studentName, Long courseId, String courseName,
+                                Grade grade, String notes) {
+}
@@ -0,0 +1,21 @@
+package com.example.queryMethods.models.projection;
+
+import com.example.queryMethods.models.entity.Grade;
+
+import java.util.Map;
+
+/**
+ * Counts shown next to the students matching a filter. Every count is a number of distinct matching students:
+ * enrolled at least once with the grade, enrolled in the course, or aged within the bucket starting at the key.
+ * Grades, courses and buckets no matching student belongs to are left out.
+ */
+public record StudentFacets(long students, Map<Grade, Long> grades, Map<String, Long> courses,
+                            Map<Integer, Long> ageBuckets) {
+
+    /**
+     * @return the lower bound of the age bucket of the given width the age falls in
+     */
+    public static int ageBucket(int age, int bucketSize) {
+        return Math.floorDiv(age, bucketSize) * bucketSize;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.queryMethods.models.projection;
+
+/**
+ * Read only view of a {@link com.example.queryMethods.models.entity.Student} holding only the searchable columns,
+ * selected with a constructor expression, so no enrollments are loaded and nothing is dirty-checked.
+ */
+public record StudentSummary(Long id, String name, String email, int age, int enrollmentCount) {
+}
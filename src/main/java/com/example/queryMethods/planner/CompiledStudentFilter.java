@@ -0,0 +1,154 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.search.NGrams;
+import com.example.queryMethods.search.StudentSnapshot;
+import com.example.queryMethods.search.StudentSnapshot.EnrollmentRow;
+import com.example.queryMethods.search.StudentSnapshot.StudentRow;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link StudentFilter} compiled once into a single predicate, evaluating its criteria in the given order.
+ * The needles are lower-cased and the range bounds unboxed at compile time, and the cached lower-case columns of
+ * the students and courses are compared against them, so a student is tested without allocating.
+ * Compiled against a snapshot, the course name criteria is resolved to the ids of the matching courses up front.
+ */
+public final class CompiledStudentFilter {
+
+    private final FilterCriterion[] criteria;
+    private final String name;
+    private final String email;
+    private final int ageAbove;
+    private final int ageBelow;
+    private final int enrollmentCountAbove;
+    private final int enrollmentCountBelow;
+    private final String courseName;
+    private final Grade courseGrade;
+    private final Set<Long> courseIds;
+
+    private CompiledStudentFilter(StudentFilter filter, List<FilterCriterion> criteria, Set<Long> courseIds) {
+        this.criteria = criteria.toArray(new FilterCriterion[0]);
+        this.name = NGrams.normalize(filter.getName());
+        this.email = NGrams.normalize(filter.getEmail());
+        this.ageAbove = lowerBound(filter.getAgeGreaterThan());
+        this.ageBelow = upperBound(filter.getAgeLessThan());
+        this.enrollmentCountAbove = lowerBound(filter.getEnrollmentsCountGreaterThan());
+        this.enrollmentCountBelow = upperBound(filter.getEnrollmentsCountLessThan());
+        this.courseName = NGrams.normalize(filter.getCourseName());
+        this.courseGrade = filter.getCourseGrade();
+        this.courseIds = courseIds;
+    }
+
+    /**
+     * @param criteria the criteria to evaluate, the most selective one first
+     */
+    public static CompiledStudentFilter compile(StudentFilter filter, List<FilterCriterion> criteria) {
+        return new CompiledStudentFilter(filter, criteria, null);
+    }
+
+    /**
+     * Same as {@link #compile(StudentFilter, List)} for the rows of the given snapshot only.
+     */
+    public static CompiledStudentFilter compile(StudentFilter filter, List<FilterCriterion> criteria,
+                                                StudentSnapshot snapshot) {
+        Set<Long> courseIds = filter.getCourseName() == null
+                ? null
+                : snapshot.courseIdsWhereNameContains(NGrams.normalize(filter.getCourseName()));
+        return new CompiledStudentFilter(filter, criteria, courseIds);
+    }
+
+    public boolean matches(Student student) {
+        for (FilterCriterion criterion : criteria) {
+            boolean matches = switch (criterion) {
+                case NAME -> contains(student.getNameLower(), student.getName(), name);
+                case EMAIL -> contains(student.getEmailLower(), student.getEmail(), email);
+                case AGE -> student.getAge() > ageAbove && student.getAge() < ageBelow;
+                case ENROLLMENT_COUNT -> student.getEnrollmentCount() > enrollmentCountAbove
+                        && student.getEnrollmentCount() < enrollmentCountBelow;
+                case COURSE -> anyEnrollmentMatches(student);
+            };
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Only valid for the snapshot this filter was compiled against.
+     */
+    public boolean matches(StudentSnapshot snapshot, StudentRow student) {
+        for (FilterCriterion criterion : criteria) {
+            boolean matches = switch (criterion) {
+                case NAME -> student.lowerName() != null && student.lowerName().contains(name);
+                case EMAIL -> student.lowerEmail() != null && student.lowerEmail().contains(email);
+                case AGE -> student.age() > ageAbove && student.age() < ageBelow;
+                case ENROLLMENT_COUNT -> {
+                    int enrollmentCount = snapshot.enrollmentsOf(student.id()).size();
+                    yield enrollmentCount > enrollmentCountAbove && enrollmentCount < enrollmentCountBelow;
+                }
+                case COURSE -> anyEnrollmentMatches(snapshot.enrollmentsOf(student.id()));
+            };
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean anyEnrollmentMatches(Student student) {
+        if (student.getEnrollments() == null) {
+            return false;
+        }
+        for (Enrollment enrollment : student.getEnrollments()) {
+            if ((courseName == null || contains(enrollment.getCourse().getNameLower(), enrollment.getCourse().getName(), courseName))
+                    && (courseGrade == null || courseGrade == enrollment.getGrade())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean anyEnrollmentMatches(List<EnrollmentRow> enrollments) {
+        for (int i = 0; i < enrollments.size(); i++) {
+            EnrollmentRow enrollment = enrollments.get(i);
+            if ((courseIds == null || enrollment.courseId() != null && courseIds.contains(enrollment.courseId()))
+                    && (courseGrade == null || courseGrade == enrollment.grade())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Uses the cached lower-case copy of the value, compares ignoring case when it is not set yet,
+     * e.g. on a student that has not been saved.
+     */
+    private static boolean contains(String lowerValue, String value, String lowerNeedle) {
+        if (lowerValue != null) {
+            return lowerValue.contains(lowerNeedle);
+        }
+        if (value == null) {
+            return false;
+        }
+        for (int offset = 0; offset + lowerNeedle.length() <= value.length(); offset++) {
+            if (value.regionMatches(true, offset, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lowerBound(Integer greaterThan) {
+        return greaterThan == null ? Integer.MIN_VALUE : greaterThan;
+    }
+
+    private static int upperBound(Integer lessThan) {
+        return lessThan == null ? Integer.MAX_VALUE : lessThan;
+    }
+}
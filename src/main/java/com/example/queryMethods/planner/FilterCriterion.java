@@ -0,0 +1,141 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+
+/**
+ * The independent criteria of a {@link StudentFilter}, with what the planner needs to know about each:
+ * its selectivity and whether the database can find the matching students through an index.
+ * {@link CompiledStudentFilter} evaluates them in memory.
+ */
+public enum FilterCriterion {
+
+    NAME(false) {
+        @Override
+        public boolean isSet(StudentFilter filter) {
+            return filter.getName() != null;
+        }
+
+        @Override
+        public double selectivity(StudentFilter filter, StudentStatistics statistics) {
+            return statistics.nameSelectivity(filter.getName());
+        }
+
+        @Override
+        public String describe(StudentFilter filter) {
+            return "name contains '" + filter.getName() + "'";
+        }
+    },
+
+    EMAIL(false) {
+        @Override
+        public boolean isSet(StudentFilter filter) {
+            return filter.getEmail() != null;
+        }
+
+        @Override
+        public double selectivity(StudentFilter filter, StudentStatistics statistics) {
+            return statistics.emailSelectivity(filter.getEmail());
+        }
+
+        @Override
+        public String describe(StudentFilter filter) {
+            return "email contains '" + filter.getEmail() + "'";
+        }
+    },
+
+    AGE(false) {
+        @Override
+        public boolean isSet(StudentFilter filter) {
+            return filter.getAgeGreaterThan() != null || filter.getAgeLessThan() != null;
+        }
+
+        @Override
+        public double selectivity(StudentFilter filter, StudentStatistics statistics) {
+            return statistics.ageSelectivity(filter.getAgeGreaterThan(), filter.getAgeLessThan());
+        }
+
+        @Override
+        public String describe(StudentFilter filter) {
+            return range("age", filter.getAgeGreaterThan(), filter.getAgeLessThan());
+        }
+    },
+
+    ENROLLMENT_COUNT(true) {
+        @Override
+        public boolean isSet(StudentFilter filter) {
+            return filter.getEnrollmentsCountGreaterThan() != null || filter.getEnrollmentsCountLessThan() != null;
+        }
+
+        @Override
+        public double selectivity(StudentFilter filter, StudentStatistics statistics) {
+            return statistics.enrollmentCountSelectivity(
+                    filter.getEnrollmentsCountGreaterThan(), filter.getEnrollmentsCountLessThan());
+        }
+
+        @Override
+        public String describe(StudentFilter filter) {
+            return range("enrollmentCount", filter.getEnrollmentsCountGreaterThan(), filter.getEnrollmentsCountLessThan());
+        }
+    },
+
+    COURSE(true) {
+        @Override
+        public boolean isSet(StudentFilter filter) {
+            return filter.getCourseName() != null || filter.getCourseGrade() != null;
+        }
+
+        @Override
+        public double selectivity(StudentFilter filter, StudentStatistics statistics) {
+            return statistics.courseSelectivity(filter.getCourseName(), filter.getCourseGrade());
+        }
+
+        @Override
+        public String describe(StudentFilter filter) {
+            String courseName = filter.getCourseName() == null ? "any course" : "course contains '" + filter.getCourseName() + "'";
+            return filter.getCourseGrade() == null ? courseName : courseName + " with grade " + filter.getCourseGrade();
+        }
+
+        @Override
+        public FetchPlan fetchPlan(StudentFilter filter) {
+            return filter.getCourseName() == null ? FetchPlan.ENROLLMENTS : FetchPlan.ENROLLMENTS_AND_COURSE;
+        }
+    };
+
+    private final boolean indexed;
+
+    FilterCriterion(boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    /**
+     * @return true if the database finds the matching students through an index instead of scanning all students
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public abstract boolean isSet(StudentFilter filter);
+
+    /**
+     * @return the estimated fraction of students matching this criteria, between 0 and 1
+     */
+    public abstract double selectivity(StudentFilter filter, StudentStatistics statistics);
+
+    public abstract String describe(StudentFilter filter);
+
+    /**
+     * @return the associations {@link CompiledStudentFilter#matches(Student)} needs loaded to evaluate this criteria
+     */
+    public FetchPlan fetchPlan(StudentFilter filter) {
+        return FetchPlan.NONE;
+    }
+
+    private static String range(String column, Integer greaterThan, Integer lessThan) {
+        if (greaterThan != null && lessThan != null) {
+            return greaterThan + " < " + column + " < " + lessThan;
+        }
+        return greaterThan != null ? column + " > " + greaterThan : column + " < " + lessThan;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.queryMethods.planner;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * How a filter is evaluated: the chosen {@link Strategy}, the criteria ordered from the most to the least selective
+ * with their estimates, and the estimated cost of every strategy that was considered.
+ */
+public record StudentFilterPlan(Strategy strategy, long students, double estimatedRows,
+                                List<CriterionEstimate> criteria, Map<Strategy, Double> costs) {
+
+    public enum Strategy {
+        /**
+         * No criteria, all students are loaded.
+         */
+        SCAN,
+        /**
+         * All criteria in one select, evaluated by the database.
+         */
+        PUSHDOWN,
+        /**
+         * The ids of the most selective criteria are queried, only those students are loaded
+         * and the remaining criteria are evaluated in memory.
+         */
+        INDEX_LOOKUP,
+        /**
+         * Every criteria is evaluated in memory, against the StudentSnapshot when enabled and only the matching
+         * students are loaded, otherwise against all students loaded from the database.
+         */
+        IN_MEMORY
+    }
+
+    public record CriterionEstimate(FilterCriterion criterion, String description, double selectivity, double rows) {
+    }
+
+    /**
+     * @return the same estimates evaluated with another strategy, e.g. to compare strategies
+     */
+    public StudentFilterPlan withStrategy(Strategy strategy) {
+        return new StudentFilterPlan(strategy, students, estimatedRows, criteria, costs);
+    }
+
+    public List<FilterCriterion> orderedCriteria() {
+        return criteria.stream().map(CriterionEstimate::criterion).toList();
+    }
+
+    /**
+     * @return an EXPLAIN like, multi line description of the plan
+     */
+    public String explain() {
+        StringBuilder explain = new StringBuilder(String.format(Locale.ROOT, "%s over %d students, ~%.0f rows",
+                strategy, students, estimatedRows));
+        if (!costs.isEmpty()) {
+            explain.append(costs.entrySet().stream()
+                    .map(cost -> String.format(Locale.ROOT, "%s=%.1f", cost.getKey(), cost.getValue()))
+                    .collect(Collectors.joining(", ", " (cost ", ")")));
+        }
+        for (int i = 0; i < criteria.size(); i++) {
+            CriterionEstimate criterion = criteria.get(i);
+            explain.append(String.format(Locale.ROOT, "%n  %d. %s: selectivity %.4f, ~%.0f rows, %s",
+                    i + 1, criterion.description(), criterion.selectivity(), criterion.rows(), evaluatedBy(i)));
+        }
+        return explain.toString();
+    }
+
+    private String evaluatedBy(int position) {
+        return switch (strategy) {
+            case SCAN, PUSHDOWN -> "database";
+            case INDEX_LOOKUP -> position == 0
+                    ? (criteria.get(0).criterion().isIndexed() ? "database, index lookup" : "database, id scan")
+                    : "memory";
+            case IN_MEMORY -> "memory";
+        };
+    }
+}
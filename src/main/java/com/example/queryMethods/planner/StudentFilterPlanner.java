@@ -0,0 +1,119 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.StudentFilterPlan.CriterionEstimate;
+import com.example.queryMethods.planner.StudentFilterPlan.Strategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses the cheapest {@link Strategy} for a filter from the current {@link StudentStatistics}.
+ * Criteria are assumed to be independent, so the estimated result is the product of their selectivities.
+ * Costs are in units of one hydrated student row: a round trip, a row checked by the database,
+ * an id returned, an enrollment loaded or a row checked in memory each cost a fixed share of it.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentFilterPlanner {
+
+    static final double ROUND_TRIP = 20;
+    static final double STUDENT_LOAD = 1;
+    static final double ENROLLMENT_LOAD = 0.5;
+    static final double ID_LOAD = 0.05;
+    static final double DATABASE_ROW_CHECK = 0.05;
+    static final double INDEX_ROW_LOOKUP = 0.01;
+    static final double MEMORY_ROW_CHECK = 0.01;
+    static final int ID_BATCH_SIZE = 1000;
+
+    private final StudentStatisticsHolder statisticsHolder;
+    private final StudentSearchProperties properties;
+
+    public StudentFilterPlan plan(StudentFilter filter) {
+        return plan(filter, statisticsHolder.get(), properties.isSnapshotEnabled());
+    }
+
+    public static StudentFilterPlan plan(StudentFilter filter, StudentStatistics statistics) {
+        return plan(filter, statistics, false);
+    }
+
+    /**
+     * @param snapshot whether the in-memory strategy evaluates the criteria against the StudentSnapshot
+     *                 and loads only the matching students, instead of loading every student
+     */
+    public static StudentFilterPlan plan(StudentFilter filter, StudentStatistics statistics, boolean snapshot) {
+        long students = statistics.students();
+        List<CriterionEstimate> criteria = Arrays.stream(FilterCriterion.values())
+                .filter(criterion -> filter != null && criterion.isSet(filter))
+                .map(criterion -> {
+                    double selectivity = criterion.selectivity(filter, statistics);
+                    return new CriterionEstimate(criterion, criterion.describe(filter), selectivity, selectivity * students);
+                })
+                .sorted(Comparator.comparingDouble(CriterionEstimate::selectivity))
+                .toList();
+        if (criteria.isEmpty()) {
+            return new StudentFilterPlan(Strategy.SCAN, students, students, criteria, Map.of());
+        }
+
+        double estimatedRows = students * criteria.stream().mapToDouble(CriterionEstimate::selectivity)
+                .reduce(1, (left, right) -> left * right);
+        Map<Strategy, Double> costs = new EnumMap<>(Strategy.class);
+        costs.put(Strategy.PUSHDOWN, pushdownCost(criteria, students, estimatedRows));
+        if (criteria.size() > 1) {
+            costs.put(Strategy.INDEX_LOOKUP, indexLookupCost(filter, criteria, students, statistics));
+        }
+        costs.put(Strategy.IN_MEMORY, snapshot
+                ? snapshotCost(criteria, students, estimatedRows)
+                : inMemoryCost(filter, criteria, students, statistics));
+        Strategy cheapest = costs.entrySet().stream().min(Map.Entry.comparingByValue()).orElseThrow().getKey();
+        return new StudentFilterPlan(cheapest, students, estimatedRows, criteria, costs);
+    }
+
+    /**
+     * The specification combines its criteria into one where clause over the student table, course criteria
+     * as EXISTS sub queries, so the database checks every student against every criteria.
+     * Only the result is transferred.
+     */
+    private static double pushdownCost(List<CriterionEstimate> criteria, long students, double estimatedRows) {
+        return ROUND_TRIP + students * DATABASE_ROW_CHECK * criteria.size() + estimatedRows * STUDENT_LOAD;
+    }
+
+    private static double indexLookupCost(StudentFilter filter, List<CriterionEstimate> criteria, long students,
+                                          StudentStatistics statistics) {
+        CriterionEstimate driving = criteria.get(0);
+        List<CriterionEstimate> residual = criteria.subList(1, criteria.size());
+        double rows = driving.rows();
+        double lookup = driving.criterion().isIndexed() ? rows * INDEX_ROW_LOOKUP : students * DATABASE_ROW_CHECK;
+        double hydration = Math.ceil(rows / ID_BATCH_SIZE) * ROUND_TRIP + rows * STUDENT_LOAD
+                + rows * enrollmentLoad(filter, residual, statistics);
+        return ROUND_TRIP + lookup + rows * ID_LOAD + hydration + rows * MEMORY_ROW_CHECK * residual.size();
+    }
+
+    private static double inMemoryCost(StudentFilter filter, List<CriterionEstimate> criteria, long students,
+                                       StudentStatistics statistics) {
+        return ROUND_TRIP + students * (STUDENT_LOAD + enrollmentLoad(filter, criteria, statistics)
+                + MEMORY_ROW_CHECK * criteria.size());
+    }
+
+    private static double snapshotCost(List<CriterionEstimate> criteria, long students, double estimatedRows) {
+        return Math.max(1, Math.ceil(estimatedRows / ID_BATCH_SIZE)) * ROUND_TRIP
+                + students * MEMORY_ROW_CHECK * criteria.size() + estimatedRows * STUDENT_LOAD;
+    }
+
+    /**
+     * @return the cost per student of loading the enrollments the criteria evaluated in memory need
+     */
+    private static double enrollmentLoad(StudentFilter filter, List<CriterionEstimate> inMemory,
+                                         StudentStatistics statistics) {
+        boolean needsEnrollments = inMemory.stream()
+                .anyMatch(criterion -> criterion.criterion().fetchPlan(filter) != FetchPlan.NONE);
+        return needsEnrollments ? statistics.averageEnrollments() * ENROLLMENT_LOAD : 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.search.NGrams;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table statistics the {@link StudentFilterPlanner} estimates selectivities from: exact histograms of age and
+ * enrollment count, the number of distinct students per grade, course and course / grade, and a sample of
+ * lower case names and emails for substring searches. Course names are lower case.
+ */
+public record StudentStatistics(long students, long enrollments,
+                                Map<Integer, Long> studentsByAge,
+                                Map<Integer, Long> studentsByEnrollmentCount,
+                                Map<Grade, Long> studentsByGrade,
+                                Map<String, Long> studentsByCourse,
+                                Map<String, Map<Grade, Long>> studentsByCourseAndGrade,
+                                List<String> nameSample,
+                                List<String> emailSample) {
+
+    public double averageEnrollments() {
+        return students == 0 ? 0 : (double) enrollments / students;
+    }
+
+    public double ageSelectivity(Integer greaterThan, Integer lessThan) {
+        return rangeSelectivity(studentsByAge, greaterThan, lessThan);
+    }
+
+    public double enrollmentCountSelectivity(Integer greaterThan, Integer lessThan) {
+        return rangeSelectivity(studentsByEnrollmentCount, greaterThan, lessThan);
+    }
+
+    public double nameSelectivity(String needle) {
+        return sampleSelectivity(nameSample, needle);
+    }
+
+    public double emailSelectivity(String needle) {
+        return sampleSelectivity(emailSample, needle);
+    }
+
+    /**
+     * Students enrolled in a course containing the name, with the grade if given. The matching courses
+     * are treated as independent, so a student enrolled in several of them is not counted twice on average.
+     */
+    public double courseSelectivity(String courseName, Grade grade) {
+        if (courseName == null) {
+            return fraction(grade == null ? students : studentsByGrade.getOrDefault(grade, 0L));
+        }
+        String needle = NGrams.normalize(courseName);
+        double notEnrolled = 1;
+        for (Map.Entry<String, Long> course : studentsByCourse.entrySet()) {
+            if (course.getKey() == null || !course.getKey().contains(needle)) {
+                continue;
+            }
+            long enrolled = grade == null
+                    ? course.getValue()
+                    : studentsByCourseAndGrade.getOrDefault(course.getKey(), Map.of()).getOrDefault(grade, 0L);
+            notEnrolled *= 1 - fraction(enrolled);
+        }
+        return 1 - notEnrolled;
+    }
+
+    private double rangeSelectivity(Map<Integer, Long> histogram, Integer greaterThan, Integer lessThan) {
+        long matching = 0;
+        for (Map.Entry<Integer, Long> bucket : histogram.entrySet()) {
+            if ((greaterThan == null || bucket.getKey() > greaterThan) && (lessThan == null || bucket.getKey() < lessThan)) {
+                matching += bucket.getValue();
+            }
+        }
+        return fraction(matching);
+    }
+
+    /**
+     * A needle found in no sampled value is still assumed to match half a sample row, the sample may miss it.
+     */
+    private static double sampleSelectivity(List<String> sample, String needle) {
+        if (sample.isEmpty()) {
+            return 1;
+        }
+        String lowerNeedle = NGrams.normalize(needle);
+        long matching = sample.stream().filter(value -> value != null && value.contains(lowerNeedle)).count();
+        return matching == 0 ? 0.5 / sample.size() : (double) matching / sample.size();
+    }
+
+    private double fraction(long count) {
+        return students == 0 ? 0 : Math.min(1, (double) count / students);
+    }
+}
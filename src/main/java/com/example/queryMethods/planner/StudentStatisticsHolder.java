@@ -0,0 +1,105 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.search.SearchDataChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the current {@link StudentStatistics}, gathered with a few aggregate queries. Like database statistics
+ * they may lag behind: after a committed change they are gathered again by the next plan, but not before
+ * {@code students.search.planner-statistics-max-age} passed since the last time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentStatisticsHolder {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final StudentSearchProperties properties;
+
+    private volatile StudentStatistics statistics;
+    private volatile long gatheredAtNanos;
+    private volatile boolean stale;
+
+    @EventListener
+    public void onSearchDataChanged(SearchDataChangedEvent event) {
+        if (event.type() == SearchDataChangedEvent.Type.RELOADED) {
+            statistics = null; // the whole table changed, do not wait for the max age
+        }
+        stale = true;
+    }
+
+    public StudentStatistics get() {
+        StudentStatistics current = statistics;
+        boolean expired = System.nanoTime() - gatheredAtNanos > properties.getPlannerStatisticsMaxAge().toNanos();
+        return current != null && !(stale && expired) ? current : gather();
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized StudentStatistics gather() {
+        long start = System.nanoTime();
+        stale = false;
+
+        Map<Integer, Long> studentsByAge = histogram("SELECT s.age AS value, COUNT(s) AS students FROM Student s GROUP BY s.age");
+        Map<Integer, Long> studentsByEnrollmentCount = histogram(
+                "SELECT s.enrollmentCount AS value, COUNT(s) AS students FROM Student s GROUP BY s.enrollmentCount");
+
+        Map<Grade, Long> studentsByGrade = new EnumMap<>(Grade.class);
+        tuples("SELECT e.grade AS grade, COUNT(DISTINCT e.student.id) AS students FROM Enrollment e GROUP BY e.grade")
+                .forEach(row -> studentsByGrade.put(row.get("grade", Grade.class), row.get("students", Long.class)));
+        Map<String, Long> studentsByCourse = new HashMap<>();
+        tuples("SELECT e.course.nameLower AS course, COUNT(DISTINCT e.student.id) AS students FROM Enrollment e GROUP BY e.course.nameLower")
+                .forEach(row -> studentsByCourse.put(row.get("course", String.class), row.get("students", Long.class)));
+        Map<String, Map<Grade, Long>> studentsByCourseAndGrade = new HashMap<>();
+        tuples("SELECT e.course.nameLower AS course, e.grade AS grade, COUNT(DISTINCT e.student.id) AS students FROM Enrollment e GROUP BY e.course.nameLower, e.grade")
+                .forEach(row -> studentsByCourseAndGrade
+                        .computeIfAbsent(row.get("course", String.class), course -> new EnumMap<>(Grade.class))
+                        .put(row.get("grade", Grade.class), row.get("students", Long.class)));
+
+        // the first students by id, the generated data is in random order
+        List<String> nameSample = new ArrayList<>();
+        List<String> emailSample = new ArrayList<>();
+        entityManager.createQuery("SELECT s.nameLower AS name, s.emailLower AS email FROM Student s ORDER BY s.id", Tuple.class)
+                .setMaxResults(properties.getPlannerSampleSize())
+                .getResultList()
+                .forEach(row -> {
+                    nameSample.add(row.get("name", String.class));
+                    emailSample.add(row.get("email", String.class));
+                });
+
+        long students = studentsByAge.values().stream().mapToLong(Long::longValue).sum();
+        long enrollments = entityManager.createQuery("SELECT COUNT(e) FROM Enrollment e", Long.class).getSingleResult();
+        StudentStatistics gathered = new StudentStatistics(students, enrollments, studentsByAge, studentsByEnrollmentCount,
+                studentsByGrade, studentsByCourse, studentsByCourseAndGrade, nameSample, emailSample);
+        statistics = gathered;
+        gatheredAtNanos = System.nanoTime();
+        log.debug("student statistics gathered for {} students in {} ms", students, (System.nanoTime() - start) / 1_000_000);
+        return gathered;
+    }
+
+    private Map<Integer, Long> histogram(String query) {
+        Map<Integer, Long> histogram = new HashMap<>();
+        tuples(query).forEach(row -> histogram.put(row.get("value", Integer.class), row.get("students", Long.class)));
+        return histogram;
+    }
+
+    private List<Tuple> tuples(String query) {
+        return entityManager.createQuery(query, Tuple.class).getResultList();
+    }
+}
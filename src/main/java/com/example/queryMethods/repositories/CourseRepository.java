@@ -2,8 +2,10 @@ package com.example.queryMethods.repositories;
 
 import com.example.queryMethods.models.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course>,
+        CourseRepositoryCustom {
 }
@@ -0,0 +1,18 @@
+package com.example.queryMethods.repositories;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.projection.CourseSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Queries of {@link CourseRepository} which need direct access to the EntityManager.
+ */
+public interface CourseRepositoryCustom {
+
+    /**
+     * Summaries of the matching courses, ordered by id unless the pageable is sorted, e.g. by {@code credits}.
+     */
+    Page<CourseSummary> findSummaries(Specification<Course> specification, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.example.queryMethods.repositories;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.projection.CourseSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    private static final Sort DEFAULT_SORT = Sort.by("id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CourseSummary> findSummaries(Specification<Course> specification, Pageable pageable) {
+        return SpecificationQueries.findPage(entityManager, Course.class, CourseSummary.class,
+                (root, cb) -> cb.construct(CourseSummary.class, root.get("id"), root.get("name"), root.get("credits")),
+                specification, pageable, DEFAULT_SORT);
+    }
+}
@@ -1,9 +1,39 @@
 package com.example.queryMethods.repositories;
 
 import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.EnrollmentSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, JpaSpecificationExecutor<Enrollment>,
+        EnrollmentRepositoryCustom {
+
+    @Query("SELECT new com.example.queryMethods.models.projection.EnrollmentKey(e.id, e.student.id, e.course.id, e.grade) FROM Enrollment e")
+    List<EnrollmentKey> findAllKeys();
+
+    @Query("SELECT new com.example.queryMethods.models.projection.EnrollmentKey(e.id, e.student.id, e.course.id, e.grade) FROM Enrollment e WHERE e.id IN :ids")
+    List<EnrollmentKey> findKeysByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Enrollments of the course with the given name and grade, served by the (course_id, grade) index.
+     * The name is compared to {@code Course.nameLower}, it has to be normalized with {@code NGrams.normalize} too.
+     */
+    @Query(value = "SELECT new com.example.queryMethods.models.projection.EnrollmentSummary(" +
+            "e.id, s.id, s.name, c.id, c.name, e.grade, e.notes) " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c " +
+            "WHERE c.nameLower = :courseName AND e.grade = :grade",
+            countQuery = "SELECT count(e) FROM Enrollment e WHERE e.course.nameLower = :courseName AND e.grade = :grade")
+    Page<EnrollmentSummary> findSummariesByCourseNameAndGrade(@Param("courseName") String courseName,
+                                                              @Param("grade") Grade grade, Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.example.queryMethods.repositories;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.projection.EnrollmentSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Queries of {@link EnrollmentRepository} which need direct access to the EntityManager.
+ */
+public interface EnrollmentRepositoryCustom {
+
+    /**
+     * Summaries of the matching enrollments, ordered by id unless the pageable is sorted,
+     * e.g. by {@code course.name} or {@code student.age}.
+     */
+    Page<EnrollmentSummary> findSummaries(Specification<Enrollment> specification, Pageable pageable);
+}
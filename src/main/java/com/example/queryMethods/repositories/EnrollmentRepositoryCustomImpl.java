@@ -0,0 +1,31 @@
+package com.example.queryMethods.repositories;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.projection.EnrollmentSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+
+    private static final Sort DEFAULT_SORT = Sort.by("id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<EnrollmentSummary> findSummaries(Specification<Enrollment> specification, Pageable pageable) {
+        // implicit joins, shared with the ones of the specification, so student and course are joined once each
+        return SpecificationQueries.findPage(entityManager, Enrollment.class, EnrollmentSummary.class,
+                (root, cb) -> cb.construct(EnrollmentSummary.class,
+                        root.get("id"), root.get("student").get("id"), root.get("student").get("name"),
+                        root.get("course").get("id"), root.get("course").get("name"),
+                        root.get("grade"), root.get("notes")),
+                specification, pageable, DEFAULT_SORT);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.queryMethods.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Criteria queries over the entities matching a specification, shared by the custom repository implementations.
+ * A null specification matches every entity.
+ */
+final class SpecificationQueries {
+
+    private SpecificationQueries() {
+    }
+
+    /**
+     * Pages the projections of the matching entities. Without a sort in the pageable the default sort applies,
+     * offset paging needs a total order, or pages may repeat or skip rows.
+     */
+    static <T, S> Page<S> findPage(EntityManager entityManager, Class<T> entityType, Class<S> projectionType,
+                                   BiFunction<Root<T>, CriteriaBuilder, Selection<S>> projection,
+                                   Specification<T> specification, Pageable pageable, Sort defaultSort) {
+        TypedQuery<S> query = projectionQuery(entityManager, entityType, projectionType, projection, specification,
+                pageable.getSortOr(defaultSort));
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(query.getResultList());
+        }
+        List<S> content = query
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, entityType, specification));
+    }
+
+    static <T, S> TypedQuery<S> projectionQuery(EntityManager entityManager, Class<T> entityType, Class<S> projectionType,
+                                                BiFunction<Root<T>, CriteriaBuilder, Selection<S>> projection,
+                                                Specification<T> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<S> query = cb.createQuery(projectionType);
+        Root<T> root = query.from(entityType);
+        query.select(projection.apply(root, cb))
+                .where(toPredicate(specification, root, query, cb))
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    static <T> long count(EntityManager entityManager, Class<T> entityType, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(cb.count(root)).where(toPredicate(specification, root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    static <T> Predicate toPredicate(Specification<T> specification, Root<T> root,
+                                     CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        return predicate == null ? cb.conjunction() : predicate;
+    }
+}
@@ -4,36 +4,84 @@ import com.example.queryMethods.models.entity.Grade;
 import com.example.queryMethods.models.entity.Student;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+@Transactional(readOnly = true)
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student>,
+        StudentRepositoryCustom {
 
-    @EntityGraph(attributePaths = {"enrollments", "enrollments.course"})
+    @EntityGraph(Student.GRAPH_ENROLLMENTS_AND_COURSE)
+    @Query("SELECT s FROM Student s WHERE s.enrollments IS NOT EMPTY")
     List<Student> findByEnrollmentsNotNull();
 
-    List<Student> findByNameContainingIgnoreCase(String name);
+    @Query("SELECT s FROM Student s WHERE s.nameLower LIKE CONCAT('%', LOWER(:name), '%')")
+    List<Student> findByNameContainingIgnoreCase(@Param("name") String name);
 
-    List<Student> findByEmailContainingIgnoreCase(String email);
+    @Query("SELECT s FROM Student s WHERE s.emailLower LIKE CONCAT('%', LOWER(:email), '%')")
+    List<Student> findByEmailContainingIgnoreCase(@Param("email") String email);
 
     List<Student> findByAgeGreaterThan(Integer age);
 
     List<Student> findByAgeLessThan(Integer age);
 
-    @Query("SELECT s FROM Student s JOIN s.enrollments e WHERE e.course.name LIKE %:courseName%")
+    List<Student> findByAgeGreaterThanAndAgeLessThan(Integer minAge, Integer maxAge);
+
+    // EXISTS instead of a join, a student enrolled in several matching courses is returned once
+    @Query("SELECT s FROM Student s WHERE EXISTS (SELECT e FROM Enrollment e WHERE e.student = s AND e.course.nameLower LIKE CONCAT('%', LOWER(:courseName), '%'))")
     List<Student> findByEnrollmentsCourseNameContainingIgnoreCase(@Param("courseName") String courseName);
 
-    @Query("SELECT s FROM Student s JOIN s.enrollments e WHERE e.grade = :grade")
+    @Query("SELECT s FROM Student s WHERE EXISTS (SELECT e FROM Enrollment e WHERE e.student = s AND e.grade = :grade)")
     List<Student> findByEnrollmentsGrade(@Param("grade") Grade grade);
 
-    @Query("SELECT s FROM Student s JOIN s.enrollments e WHERE e.course.name LIKE %:courseName% AND e.grade = :grade")
+    @Query("SELECT s FROM Student s WHERE EXISTS (SELECT e FROM Enrollment e WHERE e.student = s AND e.course.nameLower LIKE CONCAT('%', LOWER(:courseName), '%') AND e.grade = :grade)")
     List<Student> findByEnrollmentsCourseNameAndGrade(@Param("courseName") String courseName, @Param("grade") Grade grade);
 
-    @Query("SELECT s FROM Student s WHERE SIZE(s.enrollments) > :minEnrollments AND SIZE(s.enrollments) < :maxEnrollments")
+    @Query("SELECT s FROM Student s WHERE s.enrollmentCount > :minEnrollments AND s.enrollmentCount < :maxEnrollments")
     List<Student> findByEnrollmentsSizeBetween(@Param("minEnrollments") int minEnrollments, @Param("maxEnrollments") int maxEnrollments);
-}
 
+    List<Student> findByEnrollmentCountGreaterThan(Integer minEnrollments);
+
+    List<Student> findByEnrollmentCountLessThan(Integer maxEnrollments);
+
+    // id only variants, ordered by id so the results can be intersected as sorted id lists
+
+    @Query("SELECT s.id FROM Student s WHERE s.nameLower LIKE CONCAT('%', LOWER(:name), '%') ORDER BY s.id")
+    List<Long> findIdsByNameContainingIgnoreCase(@Param("name") String name);
+
+    @Query("SELECT s.id FROM Student s WHERE s.emailLower LIKE CONCAT('%', LOWER(:email), '%') ORDER BY s.id")
+    List<Long> findIdsByEmailContainingIgnoreCase(@Param("email") String email);
+
+    @Query("SELECT s.id FROM Student s WHERE s.age > :age ORDER BY s.id")
+    List<Long> findIdsByAgeGreaterThan(@Param("age") Integer age);
+
+    @Query("SELECT s.id FROM Student s WHERE s.age < :age ORDER BY s.id")
+    List<Long> findIdsByAgeLessThan(@Param("age") Integer age);
+
+    @Query("SELECT s.id FROM Student s WHERE s.age > :minAge AND s.age < :maxAge ORDER BY s.id")
+    List<Long> findIdsByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
+
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.nameLower LIKE CONCAT('%', LOWER(:courseName), '%') ORDER BY e.student.id")
+    List<Long> findIdsByEnrollmentsCourseNameContainingIgnoreCase(@Param("courseName") String courseName);
+
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.grade = :grade ORDER BY e.student.id")
+    List<Long> findIdsByEnrollmentsGrade(@Param("grade") Grade grade);
+
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.nameLower LIKE CONCAT('%', LOWER(:courseName), '%') AND e.grade = :grade ORDER BY e.student.id")
+    List<Long> findIdsByEnrollmentsCourseNameAndGrade(@Param("courseName") String courseName, @Param("grade") Grade grade);
+
+    @Query("SELECT s.id FROM Student s WHERE s.enrollmentCount > :minEnrollments AND s.enrollmentCount < :maxEnrollments ORDER BY s.id")
+    List<Long> findIdsByEnrollmentsSizeBetween(@Param("minEnrollments") int minEnrollments, @Param("maxEnrollments") int maxEnrollments);
+
+    @Query("SELECT s.id FROM Student s WHERE s.enrollmentCount > :minEnrollments ORDER BY s.id")
+    List<Long> findIdsByEnrollmentCountGreaterThan(@Param("minEnrollments") Integer minEnrollments);
+
+    @Query("SELECT s.id FROM Student s WHERE s.enrollmentCount < :maxEnrollments ORDER BY s.id")
+    List<Long> findIdsByEnrollmentCountLessThan(@Param("maxEnrollments") Integer maxEnrollments);
+}
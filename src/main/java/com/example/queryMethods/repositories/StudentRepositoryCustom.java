@@ -0,0 +1,71 @@
+package com.example.queryMethods.repositories;
+
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.projection.StudentFacets;
+import com.example.queryMethods.models.projection.StudentSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Queries of {@link StudentRepository} which need direct access to the EntityManager.
+ */
+public interface StudentRepositoryCustom {
+
+    /**
+     * Loads the matching students together with the associations of the plan, in one select.
+     */
+    List<Student> findAll(Specification<Student> specification, FetchPlan fetchPlan);
+
+    /**
+     * Loads the students of the given ids in IN lists of at most {@code batchSize} ids, ordered by id.
+     */
+    List<Student> findAllByIds(long[] ids, int batchSize);
+
+    List<Student> findAllByIds(long[] ids, int batchSize, FetchPlan fetchPlan);
+
+    /**
+     * Streams the matching students over a jdbc cursor, has to be consumed and closed inside a transaction.
+     */
+    Stream<Student> stream(Specification<Student> specification, int fetchSize);
+
+    /**
+     * Passes every matching student to the consumer and clears the persistence context every
+     * {@code clearInterval} students, so memory stays flat however many rows match.
+     * Students are detached once cleared and must not be kept for lazy loading.
+     */
+    void forEach(Specification<Student> specification, int fetchSize, int clearInterval, Consumer<Student> consumer);
+
+    List<StudentSummary> findSummaries(Specification<Student> specification, Sort sort);
+
+    /**
+     * The first {@code limit} summaries in the given order, without counting the matches.
+     */
+    List<StudentSummary> findSummaries(Specification<Student> specification, Sort sort, int limit);
+
+    Page<StudentSummary> findSummaries(Specification<Student> specification, Pageable pageable);
+
+    /**
+     * Streams the summaries of the matching students ordered by id over a jdbc cursor, has to be consumed
+     * and closed inside a transaction. Summaries are not managed, the persistence context does not grow.
+     */
+    Stream<StudentSummary> streamSummaries(Specification<Student> specification, int fetchSize);
+
+    /**
+     * Grade, course and age bucket counts of the matching students, aggregated by the database in one statement,
+     * a UNION ALL of one GROUP BY select per facet, no student is loaded.
+     */
+    StudentFacets facets(Specification<Student> specification, int ageBucketSize);
+
+    /**
+     * Recounts the denormalized enrollment count of every student with one bulk update, e.g. after rows were
+     * written bypassing JPA. The update skips the entity listeners, so a reload event is published instead.
+     */
+    int recalculateEnrollmentCounts();
+}
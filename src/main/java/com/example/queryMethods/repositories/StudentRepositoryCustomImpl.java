@@ -0,0 +1,230 @@
+package com.example.queryMethods.repositories;
+
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.projection.StudentFacets;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.search.SearchDataChangeListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.example.queryMethods.repositories.SpecificationQueries.toPredicate;
+
+@Transactional(readOnly = true)
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    private static final Sort DEFAULT_SORT = Sort.by("id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SearchDataChangeListener searchDataChangeListener;
+
+    public StudentRepositoryCustomImpl(SearchDataChangeListener searchDataChangeListener) {
+        this.searchDataChangeListener = searchDataChangeListener;
+    }
+
+    @Override
+    public List<Student> findAll(Specification<Student> specification, FetchPlan fetchPlan) {
+        return withFetchPlan(query(specification), fetchPlan).getResultList();
+    }
+
+    @Override
+    public List<Student> findAllByIds(long[] ids, int batchSize) {
+        return findAllByIds(ids, batchSize, FetchPlan.NONE);
+    }
+
+    @Override
+    public List<Student> findAllByIds(long[] ids, int batchSize, FetchPlan fetchPlan) {
+        List<Student> students = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += batchSize) {
+            List<Long> batch = Arrays.stream(ids, from, Math.min(ids.length, from + batchSize)).boxed().toList();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Student> query = cb.createQuery(Student.class);
+            Root<Student> root = query.from(Student.class);
+            query.select(root).where(root.get("id").in(batch));
+            students.addAll(withFetchPlan(readOnly(entityManager.createQuery(query)), fetchPlan).getResultList());
+        }
+        students.sort(Comparator.comparing(Student::getId));
+        return students;
+    }
+
+    @Override
+    public Stream<Student> stream(Specification<Student> specification, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive, was " + fetchSize);
+        }
+        return query(specification)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public void forEach(Specification<Student> specification, int fetchSize, int clearInterval, Consumer<Student> consumer) {
+        if (clearInterval <= 0) {
+            throw new IllegalArgumentException("clearInterval must be positive, was " + clearInterval);
+        }
+        try (Stream<Student> students = stream(specification, fetchSize)) {
+            int[] sinceClear = {0};
+            students.forEach(student -> {
+                consumer.accept(student);
+                if (++sinceClear[0] >= clearInterval) {
+                    entityManager.clear();
+                    sinceClear[0] = 0;
+                }
+            });
+        }
+    }
+
+    @Override
+    public List<StudentSummary> findSummaries(Specification<Student> specification, Sort sort) {
+        return summaryQuery(specification, sort).getResultList();
+    }
+
+    @Override
+    public List<StudentSummary> findSummaries(Specification<Student> specification, Sort sort, int limit) {
+        return summaryQuery(specification, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Page<StudentSummary> findSummaries(Specification<Student> specification, Pageable pageable) {
+        return SpecificationQueries.findPage(entityManager, Student.class, StudentSummary.class,
+                StudentRepositoryCustomImpl::summary, specification, pageable, DEFAULT_SORT);
+    }
+
+    @Override
+    public Stream<StudentSummary> streamSummaries(Specification<Student> specification, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive, was " + fetchSize);
+        }
+        return summaryQuery(specification, DEFAULT_SORT)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public StudentFacets facets(Specification<Student> specification, int ageBucketSize) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        // h2 has no grouping sets: one statement, a union of one group by per facet, each row tagged with its facet
+        CriteriaQuery<Tuple> query = cb.unionAll(
+                facetQuery(cb, specification, Facet.GRADE, root -> root.join("enrollments").get("grade")),
+                facetQuery(cb, specification, Facet.COURSE,
+                        root -> root.<Student, Enrollment>join("enrollments").<Enrollment, Course>join("course").get("name")),
+                facetQuery(cb, specification, Facet.AGE, root -> root.get("age")));
+
+        long students = 0;
+        Map<Grade, Long> grades = new EnumMap<>(Grade.class);
+        Map<String, Long> courses = new TreeMap<>();
+        Map<Integer, Long> ageBuckets = new TreeMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(4, Long.class);
+            switch (Facet.values()[row.get(0, Integer.class)]) {
+                case GRADE -> grades.put(row.get(1, Grade.class), count);
+                case COURSE -> courses.put(row.get(2, String.class), count);
+                case AGE -> {
+                    // grouped by exact age, the few distinct ages are folded into buckets here
+                    ageBuckets.merge(StudentFacets.ageBucket(row.get(3, Integer.class), ageBucketSize), count, Long::sum);
+                    students += count;
+                }
+            }
+        }
+        return new StudentFacets(students, grades, courses, ageBuckets);
+    }
+
+    @Override
+    @Transactional
+    public int recalculateEnrollmentCounts() {
+        int updated = entityManager
+                .createQuery("UPDATE Student s SET s.enrollmentCount = (SELECT COUNT(e) FROM Enrollment e WHERE e.student = s)")
+                .executeUpdate();
+        entityManager.clear(); // managed students still hold the previous counts
+        searchDataChangeListener.publishReloaded();
+        return updated;
+    }
+
+    /**
+     * @return (facet, grade, course name, age, distinct matching students) rows grouped by the key of the facet,
+     * the columns of the other facets are null
+     */
+    private static CriteriaQuery<Tuple> facetQuery(HibernateCriteriaBuilder cb, Specification<Student> specification,
+                                                   Facet facet, Function<Root<Student>, Expression<?>> key) {
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Student> root = query.from(Student.class);
+        Expression<?> groupKey = key.apply(root);
+        query.multiselect(cb.literal(facet.ordinal()),
+                        facet == Facet.GRADE ? groupKey : cb.nullLiteral(Grade.class),
+                        facet == Facet.COURSE ? groupKey : cb.nullLiteral(String.class),
+                        facet == Facet.AGE ? groupKey : cb.nullLiteral(Integer.class),
+                        cb.countDistinct(root))
+                .where(toPredicate(specification, root, query, cb))
+                .groupBy(groupKey);
+        return query;
+    }
+
+    private TypedQuery<StudentSummary> summaryQuery(Specification<Student> specification, Sort sort) {
+        return SpecificationQueries.projectionQuery(entityManager, Student.class, StudentSummary.class,
+                StudentRepositoryCustomImpl::summary, specification, sort);
+    }
+
+    private static Selection<StudentSummary> summary(Root<Student> root, CriteriaBuilder cb) {
+        return cb.construct(StudentSummary.class,
+                root.get("id"), root.get("name"), root.get("email"), root.get("age"), root.get("enrollmentCount"));
+    }
+
+    private TypedQuery<Student> query(Specification<Student> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Student> query = cb.createQuery(Student.class);
+        Root<Student> root = query.from(Student.class);
+        query.select(root).where(toPredicate(specification, root, query, cb));
+        return readOnly(entityManager.createQuery(query));
+    }
+
+    /**
+     * Loads the students read-only inside a read-only transaction: no snapshot is kept for dirty checking.
+     * Inside a read-write transaction the caller may change the students, they stay dirty checked.
+     */
+    private static TypedQuery<Student> readOnly(TypedQuery<Student> query) {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? query.setHint(HibernateHints.HINT_READ_ONLY, true)
+                : query;
+    }
+
+    private TypedQuery<Student> withFetchPlan(TypedQuery<Student> query, FetchPlan fetchPlan) {
+        if (fetchPlan.graphName() != null) {
+            query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(fetchPlan.graphName()));
+        }
+        return query;
+    }
+
+    private enum Facet { GRADE, COURSE, AGE }
+}
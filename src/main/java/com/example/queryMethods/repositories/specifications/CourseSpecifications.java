@@ -0,0 +1,39 @@
+package com.example.queryMethods.repositories.specifications;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.filter.CourseFilter;
+import com.example.queryMethods.search.NGrams;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds {@link Specification}s for {@link Course} from the non-null fields of a {@link CourseFilter}.
+ */
+public final class CourseSpecifications {
+
+    private CourseSpecifications() {
+    }
+
+    public static Specification<Course> fromFilter(CourseFilter filter) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return cb.and();
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getName() != null) {
+                predicates.add(cb.like(root.get("nameLower"), "%" + NGrams.normalize(filter.getName()) + "%"));
+            }
+            if (filter.getCreditsGreaterThan() != null) {
+                predicates.add(cb.greaterThan(root.get("credits"), filter.getCreditsGreaterThan()));
+            }
+            if (filter.getCreditsLessThan() != null) {
+                predicates.add(cb.lessThan(root.get("credits"), filter.getCreditsLessThan()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.queryMethods.repositories.specifications;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.EnrollmentFilter;
+import com.example.queryMethods.search.NGrams;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds {@link Specification}s for {@link Enrollment} so that every non-null field of an
+ * {@link EnrollmentFilter} is evaluated by the database against the enrollment table, joined to its
+ * student and course only for the criteria on their columns.
+ */
+public final class EnrollmentSpecifications {
+
+    private EnrollmentSpecifications() {
+    }
+
+    public static Specification<Enrollment> fromFilter(EnrollmentFilter filter) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return cb.and();
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStudentId() != null) {
+                predicates.add(cb.equal(root.get("student").get("id"), filter.getStudentId()));
+            }
+            if (filter.getStudentName() != null) {
+                predicates.add(cb.like(root.get("student").get("nameLower"), containsPattern(filter.getStudentName())));
+            }
+            if (filter.getStudentAgeGreaterThan() != null) {
+                predicates.add(cb.greaterThan(root.get("student").get("age"), filter.getStudentAgeGreaterThan()));
+            }
+            if (filter.getStudentAgeLessThan() != null) {
+                predicates.add(cb.lessThan(root.get("student").get("age"), filter.getStudentAgeLessThan()));
+            }
+            if (filter.getCourseId() != null) {
+                predicates.add(cb.equal(root.get("course").get("id"), filter.getCourseId()));
+            }
+            if (filter.getCourseName() != null) {
+                predicates.add(cb.like(root.get("course").get("nameLower"), containsPattern(filter.getCourseName())));
+            }
+            if (filter.getGrade() != null) {
+                predicates.add(cb.equal(root.<Grade>get("grade"), filter.getGrade()));
+            }
+            if (filter.getNotes() != null) {
+                // notes have no lower case copy, lower() is evaluated on every enrollment left by the other criteria
+                predicates.add(cb.like(cb.lower(root.get("notes")), containsPattern(filter.getNotes())));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String containsPattern(String value) {
+        return "%" + NGrams.normalize(value) + "%";
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.queryMethods.repositories.specifications;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.search.NGrams;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link Specification}s for {@link Student} so that every non-null field of a
+ * {@link StudentFilter} is evaluated by the database in a single select statement.
+ */
+public final class StudentSpecifications {
+
+    private StudentSpecifications() {
+    }
+
+    public static Specification<Student> fromFilter(StudentFilter filter) {
+        return fromFilter(filter, false);
+    }
+
+    /**
+     * @param useTrigramIndex narrow name and email searches down through the student_search_token table
+     *                        before the LIKE comparison, pays off once the student table is large
+     */
+    public static Specification<Student> fromFilter(StudentFilter filter, boolean useTrigramIndex) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return cb.and();
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getId() != null) {
+                predicates.add(cb.equal(root.get("id"), filter.getId()));
+            }
+            if (filter.getName() != null) {
+                if (useTrigramIndex && NGrams.isIndexable(filter.getName())) {
+                    predicates.add(containsAllTokens(root, query.subquery(Long.class), cb,
+                            Student.NAME_TOKEN_PREFIX, filter.getName()));
+                }
+                predicates.add(cb.like(root.get("nameLower"), containsPattern(filter.getName())));
+            }
+            if (filter.getEmail() != null) {
+                if (useTrigramIndex && NGrams.isIndexable(filter.getEmail())) {
+                    predicates.add(containsAllTokens(root, query.subquery(Long.class), cb,
+                            Student.EMAIL_TOKEN_PREFIX, filter.getEmail()));
+                }
+                predicates.add(cb.like(root.get("emailLower"), containsPattern(filter.getEmail())));
+            }
+            if (filter.getAgeGreaterThan() != null) {
+                predicates.add(cb.greaterThan(root.get("age"), filter.getAgeGreaterThan()));
+            }
+            if (filter.getAgeLessThan() != null) {
+                predicates.add(cb.lessThan(root.get("age"), filter.getAgeLessThan()));
+            }
+            if (filter.getEnrollmentsCountGreaterThan() != null) {
+                predicates.add(cb.greaterThan(root.get("enrollmentCount"), filter.getEnrollmentsCountGreaterThan()));
+            }
+            if (filter.getEnrollmentsCountLessThan() != null) {
+                predicates.add(cb.lessThan(root.get("enrollmentCount"), filter.getEnrollmentsCountLessThan()));
+            }
+            if (filter.getCourseName() != null || filter.getCourseGrade() != null) {
+                // one EXISTS sub query, so course name and grade have to match the same enrollment
+                // and students with several matching enrollments are not returned twice
+                Subquery<Long> enrollments = query.subquery(Long.class);
+                Root<Enrollment> enrollment = enrollments.from(Enrollment.class);
+                List<Predicate> enrollmentPredicates = new ArrayList<>();
+                enrollmentPredicates.add(cb.equal(enrollment.get("student"), root));
+                if (filter.getCourseName() != null) {
+                    enrollmentPredicates.add(cb.like(
+                            enrollment.get("course").get("nameLower"), containsPattern(filter.getCourseName())));
+                }
+                if (filter.getCourseGrade() != null) {
+                    enrollmentPredicates.add(cb.equal(enrollment.<Grade>get("grade"), filter.getCourseGrade()));
+                }
+                enrollments.select(enrollment.get("id")).where(enrollmentPredicates.toArray(new Predicate[0]));
+                predicates.add(cb.exists(enrollments));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Student> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Student> idIn(long[] ids) {
+        List<Long> boxedIds = Arrays.stream(ids).boxed().toList();
+        return (root, query, cb) -> boxedIds.isEmpty() ? cb.disjunction() : root.get("id").in(boxedIds);
+    }
+
+    /**
+     * id IN (ids of students owning every trigram of the needle), the LIKE still has to verify
+     * the order of the trigrams.
+     */
+    private static Predicate containsAllTokens(Root<Student> root, Subquery<Long> tokenMatches, CriteriaBuilder cb,
+                                               String prefix, String needle) {
+        Set<String> tokens = NGrams.trigrams(needle).stream()
+                .map(gram -> prefix + gram)
+                .collect(Collectors.toSet());
+        Root<Student> tokenOwner = tokenMatches.from(Student.class);
+        Join<Student, String> token = tokenOwner.join("searchTokens");
+        tokenMatches.select(tokenOwner.get("id"))
+                .where(token.in(tokens))
+                .groupBy(tokenOwner.get("id"))
+                .having(cb.equal(cb.count(token), (long) tokens.size()));
+        return root.get("id").in(tokenMatches);
+    }
+
+    private static String containsPattern(String value) {
+        return "%" + NGrams.normalize(value) + "%";
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.queryMethods.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map from long keys to non null values, split into a fixed number of chunks by key.
+ * An {@link Editor} copies only the chunks it writes to and shares all others with the map it was derived from,
+ * so a new version after a few changes costs about the size of the touched chunks instead of the whole map.
+ */
+final class ChunkedLongMap<V> {
+
+    private static final int CHUNKS = 256;
+
+    private static final ChunkedLongMap<?> EMPTY = new ChunkedLongMap<>(emptyChunks(), 0);
+
+    private final Map<Long, V>[] chunks;
+    private final int size;
+
+    private ChunkedLongMap(Map<Long, V>[] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> ChunkedLongMap<V> empty() {
+        return (ChunkedLongMap<V>) EMPTY;
+    }
+
+    V get(long key) {
+        return chunks[chunk(key)].get(key);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(BiConsumer<Long, ? super V> action) {
+        for (Map<Long, V> chunk : chunks) {
+            chunk.forEach(action);
+        }
+    }
+
+    List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        for (Map<Long, V> chunk : chunks) {
+            values.addAll(chunk.values());
+        }
+        return values;
+    }
+
+    Editor<V> edit() {
+        return new Editor<>(chunks.clone(), size);
+    }
+
+    private static int chunk(long key) {
+        return Long.hashCode(key) & (CHUNKS - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Map<Long, V>[] emptyChunks() {
+        Map<Long, V>[] chunks = new Map[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks[i] = Map.of();
+        }
+        return chunks;
+    }
+
+    /**
+     * Collects the changes of the next version, must not be used any more once {@link #build() built}.
+     */
+    static final class Editor<V> {
+
+        private final Map<Long, V>[] chunks;
+        private final boolean[] copied = new boolean[CHUNKS];
+        private int size;
+        private boolean built;
+
+        private Editor(Map<Long, V>[] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        V get(long key) {
+            return chunks[chunk(key)].get(key);
+        }
+
+        void put(long key, V value) {
+            if (writable(chunk(key)).put(key, value) == null) {
+                size++;
+            }
+        }
+
+        V remove(long key) {
+            int chunk = chunk(key);
+            if (!chunks[chunk].containsKey(key)) {
+                return null;
+            }
+            size--;
+            return writable(chunk).remove(key);
+        }
+
+        ChunkedLongMap<V> build() {
+            built = true;
+            return new ChunkedLongMap<>(chunks, size);
+        }
+
+        private Map<Long, V> writable(int chunk) {
+            if (built) {
+                throw new IllegalStateException("editor already built");
+            }
+            if (!copied[chunk]) {
+                chunks[chunk] = new HashMap<>(chunks[chunk]);
+                copied[chunk] = true;
+            }
+            return chunks[chunk];
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.queryMethods.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Helpers for sorted, duplicate free {@code long[]} id lists.
+ */
+public final class LongIds {
+
+    public static final long[] EMPTY = new long[0];
+
+    /**
+     * Size ratio above which the smaller list is binary searched in the larger one instead of merging both.
+     */
+    private static final int SKEW_FACTOR = 16;
+
+    private LongIds() {
+    }
+
+    /**
+     * Intersects the lists smallest first and stops as soon as the intersection is empty.
+     */
+    public static long[] intersectAll(List<long[]> idLists) {
+        if (idLists.isEmpty()) {
+            throw new IllegalArgumentException("nothing to intersect");
+        }
+        List<long[]> smallestFirst = idLists.stream().sorted(Comparator.comparingInt(ids -> ids.length)).toList();
+        long[] result = smallestFirst.get(0);
+        for (int i = 1; i < smallestFirst.size() && result.length > 0; i++) {
+            result = intersect(result, smallestFirst.get(i));
+        }
+        return result;
+    }
+
+    public static long[] intersect(long[] left, long[] right) {
+        return intersect(left, left.length, right, right.length);
+    }
+
+    /**
+     * Intersects the first {@code leftLength} ids of left with the first {@code rightLength} ids of right,
+     * e.g. of growable lists with spare capacity.
+     */
+    public static long[] intersect(long[] left, int leftLength, long[] right, int rightLength) {
+        if (leftLength > rightLength) {
+            return intersect(right, rightLength, left, leftLength);
+        }
+        if ((long) leftLength * SKEW_FACTOR < rightLength) {
+            return intersectBySearch(left, leftLength, right, rightLength);
+        }
+        long[] result = new long[leftLength];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftLength && j < rightLength) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long[] intersectBySearch(long[] small, int smallLength, long[] large, int largeLength) {
+        long[] result = new long[smallLength];
+        int size = 0;
+        int from = 0;
+        for (int i = 0; i < smallLength; i++) {
+            long id = small[i];
+            int position = Arrays.binarySearch(large, from, largeLength, id);
+            if (position >= 0) {
+                result[size++] = id;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+            if (from == largeLength) {
+                break;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.queryMethods.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits search text into overlapping lower case trigrams. A value can only contain a needle
+ * if it contains every trigram of that needle, which lets substring searches start from an index.
+ */
+public final class NGrams {
+
+    public static final int SIZE = 3;
+
+    private NGrams() {
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the distinct trigrams of the value, empty if the value is shorter than {@link #SIZE}
+     */
+    public static Set<String> trigrams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        String normalized = normalize(value);
+        if (normalized == null) {
+            return grams;
+        }
+        for (int i = 0; i + SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + SIZE));
+        }
+        return grams;
+    }
+
+    public static boolean isIndexable(String needle) {
+        return needle != null && needle.length() >= SIZE;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Filters in-memory candidates, splitting lists of at least {@code students.search.parallel-filter-threshold}
+ * elements into chunks evaluated on a dedicated fork join pool of {@code students.search.filter-parallelism} threads.
+ * Smaller lists are filtered on the calling thread, where splitting would cost more than it saves.
+ * The pool is not the common pool, so searches neither wait for nor slow down other parallel streams of the JVM.
+ * <p>
+ * The predicate runs on the pool threads: the candidates must be fully loaded, e.g. by a fetch plan,
+ * a lazy load from another thread than the one of the persistence context is not safe.
+ */
+@Component
+public class ParallelFilterExecutor implements DisposableBean {
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int parallelism;
+
+    public ParallelFilterExecutor(StudentSearchProperties properties) {
+        this.parallelism = properties.getFilterParallelism();
+        this.threshold = properties.getParallelFilterThreshold();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("student-filter-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * @return the matching candidates, in the order of the candidates
+     */
+    public <T> List<T> filter(List<T> candidates, Predicate<? super T> predicate) {
+        if (!isParallel(candidates.size())) {
+            return filter(candidates, 0, candidates.size(), predicate);
+        }
+        // a few chunks per thread, so threads finishing early steal the remaining ones
+        int chunkSize = Math.max(threshold / 2, candidates.size() / (parallelism * 4) + 1);
+        return pool.invoke(new FilterTask<>(candidates, 0, candidates.size(), chunkSize, predicate));
+    }
+
+    boolean isParallel(int candidates) {
+        return parallelism > 1 && candidates >= threshold;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static <T> List<T> filter(List<T> candidates, int from, int to, Predicate<? super T> predicate) {
+        List<T> matching = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            T candidate = candidates.get(i);
+            if (predicate.test(candidate)) {
+                matching.add(candidate);
+            }
+        }
+        return matching;
+    }
+
+    private static final class FilterTask<T> extends RecursiveTask<List<T>> {
+
+        private final List<T> candidates;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Predicate<? super T> predicate;
+
+        private FilterTask(List<T> candidates, int from, int to, int chunkSize, Predicate<? super T> predicate) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= chunkSize) {
+                return filter(candidates, from, to, predicate);
+            }
+            int middle = (from + to) >>> 1;
+            FilterTask<T> right = new FilterTask<>(candidates, middle, to, chunkSize, predicate);
+            right.fork();
+            List<T> matching = new FilterTask<>(candidates, from, middle, chunkSize, predicate).compute();
+            List<T> rightMatching = right.join();
+            if (matching.isEmpty()) {
+                return rightMatching;
+            }
+            matching.addAll(rightMatching);
+            return matching;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent queries concurrently on a bounded pool, each in its own read-only transaction
+ * and so on its own connection. The pool size is {@code students.search.sub-query-parallelism},
+ * it has to stay below the connection pool size.
+ * The executor is not exposed as a bean, it would replace spring boot's application task executor.
+ */
+@Component
+public class ParallelQueryExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ParallelQueryExecutor(StudentSearchProperties properties, PlatformTransactionManager transactionManager) {
+        this.executor = Executors.newFixedThreadPool(properties.getSubQueryParallelism(),
+                new CustomizableThreadFactory("student-sub-query-"));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Fails as soon as one query fails: queries not started yet are skipped and running ones are interrupted.
+     * The exception of the first failing query is rethrown, not the ones of the queries skipped or interrupted after it.
+     *
+     * @return the results in the order of the queries, once all of them completed
+     */
+    public <T> List<T> invokeAll(List<Supplier<T>> queries) {
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = queries.stream()
+                .map(query -> completionService.submit(() -> {
+                    if (firstFailure.get() != null) {
+                        throw new CancellationException("another query failed");
+                    }
+                    try {
+                        return readOnlyTransaction.execute(status -> query.get());
+                    } catch (RuntimeException | Error e) {
+                        firstFailure.compareAndSet(null, e);
+                        throw e;
+                    }
+                }))
+                .toList();
+        try {
+            // in completion order, so the first failure is seen without waiting for the slower queries
+            for (int i = 0; i < futures.size(); i++) {
+                completionService.take().get();
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            // a skipped query may complete before the one that failed, its sentinel must not hide the real cause
+            firstFailure.compareAndSet(null, e.getCause());
+            futures.forEach(future -> future.cancel(true));
+            Throwable failure = firstFailure.get();
+            if (failure instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (failure instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(failure);
+        } catch (InterruptedException e) {
+            firstFailure.compareAndSet(null, e);
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the queries", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
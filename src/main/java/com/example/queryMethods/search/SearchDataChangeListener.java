@@ -0,0 +1,74 @@
+package com.example.queryMethods.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * JPA entity listener turning entity changes into {@link SearchDataChangedEvent}s, so in-memory search
+ * structures can follow the database. Events are delayed until commit, rolled back changes are never published.
+ * Bulk writes run {@link #withoutEvents(Supplier)} and publish a single {@link #publishReloaded()} instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchDataChangeListener {
+
+    // static: hibernate may instantiate entity listeners itself, the flag must hold for every instance
+    private static final ThreadLocal<Boolean> SUPPRESSED = ThreadLocal.withInitial(() -> false);
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        publishAfterCommit(new SearchDataChangedEvent(entity, SearchDataChangedEvent.Type.SAVED));
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        publishAfterCommit(new SearchDataChangedEvent(entity, SearchDataChangedEvent.Type.DELETED));
+    }
+
+    /**
+     * Runs the action without publishing an event per written entity on the current thread.
+     */
+    public <T> T withoutEvents(Supplier<T> action) {
+        boolean previous = SUPPRESSED.get();
+        SUPPRESSED.set(true);
+        try {
+            return action.get();
+        } finally {
+            SUPPRESSED.set(previous);
+        }
+    }
+
+    /**
+     * Publishes a {@link SearchDataChangedEvent.Type#RELOADED} event, after commit if a transaction is active.
+     */
+    public void publishReloaded() {
+        publishAfterCommit(new SearchDataChangedEvent(null, SearchDataChangedEvent.Type.RELOADED));
+    }
+
+    private void publishAfterCommit(SearchDataChangedEvent event) {
+        if (SUPPRESSED.get() && event.type() != SearchDataChangedEvent.Type.RELOADED) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.queryMethods.search;
+
+/**
+ * Published once the transaction that inserted, updated or deleted a searchable entity has committed.
+ * A {@link Type#RELOADED} event carries no entity: any row may have changed, e.g. after a bulk load,
+ * and in-memory search structures have to be rebuilt instead of patched.
+ * Events of concurrent transactions may be delivered in another order than they committed.
+ */
+public record SearchDataChangedEvent(Object entity, Type type) {
+
+    public enum Type {
+        SAVED,
+        DELETED,
+        RELOADED
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentFacets;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable column oriented copy of the searchable student data, derived from a {@link StudentSnapshot} version.
+ * Students are addressed by their ordinal, the position of their id in the sorted {@link #ids} array, and every
+ * {@link StudentFilter} predicate is evaluated into a {@link BitSet} over these ordinals; the result is the AND of
+ * all predicate bitmaps. Deleted students keep their ordinal and are cleared from the {@link #live} bitmap.
+ */
+public final class StudentColumns {
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final long lineage;
+    private final long version;
+
+    private final long[] ids;
+    private final BitSet live;
+    private final String[] lowerNames;
+    private final String[] lowerEmails;
+    private final int[] ages;
+    private final int[] enrollmentCounts;
+
+    private final long[] courseIds;
+    private final Map<Long, Integer> courseOrdinals;
+    private final String[] courseNames;
+    private final String[] lowerCourseNames;
+    private final BitSet[] gradeBitmaps;
+    private final BitSet[] courseBitmaps;
+    // indexed by course ordinal * grades + grade ordinal
+    private final BitSet[] courseGradeBitmaps;
+
+    private StudentColumns(long lineage, long version, long[] ids, BitSet live, String[] lowerNames,
+                           String[] lowerEmails, int[] ages, int[] enrollmentCounts, long[] courseIds,
+                           Map<Long, Integer> courseOrdinals, String[] courseNames, String[] lowerCourseNames,
+                           BitSet[] gradeBitmaps, BitSet[] courseBitmaps, BitSet[] courseGradeBitmaps) {
+        this.lineage = lineage;
+        this.version = version;
+        this.ids = ids;
+        this.live = live;
+        this.lowerNames = lowerNames;
+        this.lowerEmails = lowerEmails;
+        this.ages = ages;
+        this.enrollmentCounts = enrollmentCounts;
+        this.courseIds = courseIds;
+        this.courseOrdinals = courseOrdinals;
+        this.courseNames = courseNames;
+        this.lowerCourseNames = lowerCourseNames;
+        this.gradeBitmaps = gradeBitmaps;
+        this.courseBitmaps = courseBitmaps;
+        this.courseGradeBitmaps = courseGradeBitmaps;
+    }
+
+    public static StudentColumns build(StudentSnapshot snapshot) {
+        long[] ids = snapshot.students().stream().mapToLong(StudentSnapshot.StudentRow::id).sorted().toArray();
+        int courseCount = snapshot.courseNames().size();
+        long[] courseIds = new long[courseCount];
+        Map<Long, Integer> courseOrdinals = new HashMap<>();
+        String[] courseNames = new String[courseCount];
+        String[] lowerCourseNames = new String[courseCount];
+        snapshot.courseNames().forEach((courseId, name) -> {
+            int courseOrdinal = courseOrdinals.size();
+            courseOrdinals.put(courseId, courseOrdinal);
+            courseIds[courseOrdinal] = courseId;
+            courseNames[courseOrdinal] = name;
+            lowerCourseNames[courseOrdinal] = NGrams.normalize(name);
+        });
+        StudentColumns columns = new StudentColumns(snapshot.lineage(), snapshot.version(), ids, new BitSet(ids.length),
+                new String[ids.length], new String[ids.length], new int[ids.length], new int[ids.length],
+                courseIds, Map.copyOf(courseOrdinals), courseNames, lowerCourseNames,
+                emptyBitmaps(GRADES.length), emptyBitmaps(courseCount), emptyBitmaps(courseCount * GRADES.length));
+        Editor editor = columns.new Editor(false);
+        for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+            editor.update(ordinal, snapshot);
+        }
+        return columns;
+    }
+
+    /**
+     * @return the columns of the snapshot, derived from these columns by updating only the ordinals of the changed
+     * students; built again if the changes since these columns are not known any more, a course changed, or a new
+     * student's id is lower than the highest known one
+     */
+    public StudentColumns apply(StudentSnapshot snapshot) {
+        List<StudentSnapshot.Delta> deltas = snapshot.changesSince(lineage, version);
+        if (deltas == null || deltas.stream().anyMatch(StudentSnapshot.Delta::coursesChanged)) {
+            return build(snapshot);
+        }
+        long[] changed = deltas.stream()
+                .flatMapToLong(delta -> Arrays.stream(delta.studentIds()))
+                .sorted()
+                .distinct()
+                .toArray();
+        long[] added = Arrays.stream(changed)
+                .filter(id -> ordinalOf(id) < 0 && snapshot.student(id) != null)
+                .toArray();
+        if (added.length > 0 && ids.length > 0 && added[0] < ids[ids.length - 1]) {
+            return build(snapshot);
+        }
+
+        // the per student columns are copied, the bitmaps only once a bit of theirs changes
+        int size = ids.length + added.length;
+        long[] nextIds = Arrays.copyOf(ids, size);
+        System.arraycopy(added, 0, nextIds, ids.length, added.length);
+        StudentColumns next = new StudentColumns(lineage, snapshot.version(), nextIds, (BitSet) live.clone(),
+                Arrays.copyOf(lowerNames, size), Arrays.copyOf(lowerEmails, size), Arrays.copyOf(ages, size),
+                Arrays.copyOf(enrollmentCounts, size), courseIds, courseOrdinals, courseNames, lowerCourseNames,
+                gradeBitmaps.clone(), courseBitmaps.clone(), courseGradeBitmaps.clone());
+        Editor editor = next.new Editor(true);
+        for (long id : changed) {
+            int ordinal = next.ordinalOf(id);
+            if (ordinal >= 0) {
+                editor.update(ordinal, snapshot);
+            }
+        }
+        return next;
+    }
+
+    public long lineage() {
+        return lineage;
+    }
+
+    /**
+     * @return the version of the {@link StudentSnapshot} the columns were derived from
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long idAt(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * @return the ordinal of the student id, negative if unknown; deleted students keep theirs
+     */
+    public int ordinalOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    /**
+     * @return the ordinals of the students matching every non-null field of the filter
+     */
+    public BitSet evaluate(StudentFilter filter) {
+        BitSet result = (BitSet) live.clone();
+        if (filter == null) {
+            return result;
+        }
+
+        if (filter.getId() != null) {
+            BitSet byId = new BitSet(size());
+            int ordinal = ordinalOf(filter.getId());
+            if (ordinal >= 0) {
+                byId.set(ordinal);
+            }
+            result.and(byId);
+        }
+        if (filter.getCourseName() != null || filter.getCourseGrade() != null) {
+            result.and(enrolledBitmap(filter));
+        }
+        if (filter.getAgeGreaterThan() != null || filter.getAgeLessThan() != null) {
+            result.and(rangeBitmap(ages, filter.getAgeGreaterThan(), filter.getAgeLessThan()));
+        }
+        if (filter.getEnrollmentsCountGreaterThan() != null || filter.getEnrollmentsCountLessThan() != null) {
+            result.and(rangeBitmap(enrollmentCounts,
+                    filter.getEnrollmentsCountGreaterThan(), filter.getEnrollmentsCountLessThan()));
+        }
+        // string scans last, they only look at the students still in the result
+        if (filter.getName() != null) {
+            retainContaining(result, lowerNames, NGrams.normalize(filter.getName()));
+        }
+        if (filter.getEmail() != null) {
+            retainContaining(result, lowerEmails, NGrams.normalize(filter.getEmail()));
+        }
+        return result;
+    }
+
+    public long[] ids(BitSet ordinals) {
+        long[] result = new long[ordinals.cardinality()];
+        int index = 0;
+        for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            result[index++] = ids[ordinal];
+        }
+        return result;
+    }
+
+    /**
+     * Grade, course and age bucket counts of the matching students in one pass over the bitmaps and the age column.
+     * Courses sharing a name are counted once per student.
+     */
+    public StudentFacets facets(BitSet matching, int ageBucketSize) {
+        Map<Grade, Long> grades = new EnumMap<>(Grade.class);
+        for (Grade grade : GRADES) {
+            putCount(grades, grade, intersectionSize(matching, gradeBitmaps[grade.ordinal()]));
+        }
+
+        Map<String, BitSet> enrolledByCourseName = new HashMap<>();
+        for (int courseOrdinal = 0; courseOrdinal < courseIds.length; courseOrdinal++) {
+            if (courseNames[courseOrdinal] != null) {
+                enrolledByCourseName.computeIfAbsent(courseNames[courseOrdinal], name -> new BitSet(size()))
+                        .or(courseBitmaps[courseOrdinal]);
+            }
+        }
+        Map<String, Long> courses = new TreeMap<>();
+        enrolledByCourseName.forEach((name, enrolled) -> putCount(courses, name, intersectionSize(matching, enrolled)));
+
+        Map<Integer, Long> ageBuckets = new TreeMap<>();
+        for (int ordinal = matching.nextSetBit(0); ordinal >= 0; ordinal = matching.nextSetBit(ordinal + 1)) {
+            ageBuckets.merge(StudentFacets.ageBucket(ages[ordinal], ageBucketSize), 1L, Long::sum);
+        }
+        return new StudentFacets(matching.cardinality(), grades, courses, ageBuckets);
+    }
+
+    private static long intersectionSize(BitSet matching, BitSet bitmap) {
+        BitSet intersection = (BitSet) bitmap.clone();
+        intersection.and(matching);
+        return intersection.cardinality();
+    }
+
+    private static <K> void putCount(Map<K, Long> counts, K key, long count) {
+        if (count > 0) {
+            counts.put(key, count);
+        }
+    }
+
+    private BitSet enrolledBitmap(StudentFilter filter) {
+        String courseName = NGrams.normalize(filter.getCourseName());
+        Grade grade = filter.getCourseGrade();
+        if (courseName == null) {
+            return gradeBitmaps[grade.ordinal()];
+        }
+
+        BitSet enrolled = new BitSet(size());
+        for (int courseOrdinal = 0; courseOrdinal < courseIds.length; courseOrdinal++) {
+            if (lowerCourseNames[courseOrdinal] != null && lowerCourseNames[courseOrdinal].contains(courseName)) {
+                enrolled.or(grade == null
+                        ? courseBitmaps[courseOrdinal]
+                        : courseGradeBitmaps[courseOrdinal * GRADES.length + grade.ordinal()]);
+            }
+        }
+        return enrolled;
+    }
+
+    private BitSet rangeBitmap(int[] column, Integer greaterThan, Integer lessThan) {
+        long lower = greaterThan == null ? Long.MIN_VALUE : greaterThan;
+        long upper = lessThan == null ? Long.MAX_VALUE : lessThan;
+        BitSet matching = new BitSet(size());
+        for (int ordinal = 0; ordinal < column.length; ordinal++) {
+            if (column[ordinal] > lower && column[ordinal] < upper) {
+                matching.set(ordinal);
+            }
+        }
+        return matching;
+    }
+
+    private static BitSet[] emptyBitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet();
+        }
+        return bitmaps;
+    }
+
+    /**
+     * Writes the values of students into the columns while they are derived, before they are published.
+     */
+    private final class Editor {
+
+        private final boolean copyOnWrite;
+        private final boolean[] gradeCopied = new boolean[gradeBitmaps.length];
+        private final boolean[] courseCopied = new boolean[courseBitmaps.length];
+        private final boolean[] courseGradeCopied = new boolean[courseGradeBitmaps.length];
+
+        /**
+         * @param copyOnWrite the bitmaps are shared with the previous columns and copied before their first change
+         */
+        private Editor(boolean copyOnWrite) {
+            this.copyOnWrite = copyOnWrite;
+        }
+
+        void update(int ordinal, StudentSnapshot snapshot) {
+            StudentSnapshot.StudentRow student = snapshot.student(ids[ordinal]);
+            live.set(ordinal, student != null);
+            if (student != null) {
+                lowerNames[ordinal] = student.lowerName();
+                lowerEmails[ordinal] = student.lowerEmail();
+                ages[ordinal] = student.age();
+            }
+
+            List<StudentSnapshot.EnrollmentRow> enrollments = student == null ? List.of() : snapshot.enrollmentsOf(student.id());
+            boolean[] grades = new boolean[gradeBitmaps.length];
+            boolean[] courses = new boolean[courseBitmaps.length];
+            boolean[] courseGrades = new boolean[courseGradeBitmaps.length];
+            for (StudentSnapshot.EnrollmentRow enrollment : enrollments) {
+                Integer courseOrdinal = enrollment.courseId() == null ? null : courseOrdinals.get(enrollment.courseId());
+                if (courseOrdinal != null) {
+                    courses[courseOrdinal] = true;
+                }
+                if (enrollment.grade() != null) {
+                    grades[enrollment.grade().ordinal()] = true;
+                    if (courseOrdinal != null) {
+                        courseGrades[courseOrdinal * GRADES.length + enrollment.grade().ordinal()] = true;
+                    }
+                }
+            }
+            enrollmentCounts[ordinal] = enrollments.size();
+            set(gradeBitmaps, gradeCopied, grades, ordinal);
+            set(courseBitmaps, courseCopied, courses, ordinal);
+            set(courseGradeBitmaps, courseGradeCopied, courseGrades, ordinal);
+        }
+
+        private void set(BitSet[] bitmaps, boolean[] copied, boolean[] values, int ordinal) {
+            for (int i = 0; i < bitmaps.length; i++) {
+                if (bitmaps[i].get(ordinal) == values[i]) {
+                    continue;
+                }
+                if (copyOnWrite && !copied[i]) {
+                    bitmaps[i] = (BitSet) bitmaps[i].clone();
+                    copied[i] = true;
+                }
+                bitmaps[i].set(ordinal, values[i]);
+            }
+        }
+    }
+
+    private static void retainContaining(BitSet result, String[] column, String needle) {
+        for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+            if (column[ordinal] == null || !column[ordinal].contains(needle)) {
+                result.clear(ordinal);
+            }
+        }
+    }
+}
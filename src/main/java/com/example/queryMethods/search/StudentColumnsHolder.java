@@ -0,0 +1,50 @@
+package com.example.queryMethods.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the current {@link StudentColumns}, derived from the {@link StudentSnapshotHolder}'s snapshot so they
+ * follow the same committed changes in the same order. A search after a change updates the columns of the changed
+ * students only; they are built again from the snapshot, without a database query, when the changes are not known
+ * any more or cannot be applied in place (see {@link StudentColumns#apply(StudentSnapshot)}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentColumnsHolder {
+
+    private final StudentSnapshotHolder snapshotHolder;
+
+    private volatile StudentColumns columns;
+
+    public StudentColumns get() {
+        StudentSnapshot snapshot = snapshotHolder.get();
+        StudentColumns current = columns;
+        return isDerivedFrom(current, snapshot) ? current : update(snapshot);
+    }
+
+    private synchronized StudentColumns update(StudentSnapshot snapshot) {
+        StudentColumns current = columns;
+        if (isDerivedFrom(current, snapshot)) {
+            return current;
+        }
+        if (current != null && current.lineage() == snapshot.lineage() && current.version() > snapshot.version()) {
+            return current; // a concurrent search already derived the columns of a newer version
+        }
+        if (current == null) {
+            long start = System.nanoTime();
+            current = StudentColumns.build(snapshot);
+            log.info("student columns built for {} students in {} ms", current.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            current = current.apply(snapshot);
+        }
+        columns = current;
+        return current;
+    }
+
+    private static boolean isDerivedFrom(StudentColumns columns, StudentSnapshot snapshot) {
+        return columns != null && columns.lineage() == snapshot.lineage() && columns.version() == snapshot.version();
+    }
+}
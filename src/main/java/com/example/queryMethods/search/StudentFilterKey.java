@@ -0,0 +1,25 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.StudentFilter;
+
+/**
+ * Immutable value copy of a {@link StudentFilter}, usable as a map key while the filter itself stays mutable.
+ */
+public record StudentFilterKey(Long id, String name, String email, Integer ageGreaterThan, Integer ageLessThan,
+                               Integer enrollmentsCountGreaterThan, Integer enrollmentsCountLessThan,
+                               String courseName, Grade courseGrade) {
+
+    private static final StudentFilterKey EMPTY =
+            new StudentFilterKey(null, null, null, null, null, null, null, null, null);
+
+    public static StudentFilterKey of(StudentFilter filter) {
+        if (filter == null) {
+            return EMPTY;
+        }
+        return new StudentFilterKey(filter.getId(), filter.getName(), filter.getEmail(),
+                filter.getAgeGreaterThan(), filter.getAgeLessThan(),
+                filter.getEnrollmentsCountGreaterThan(), filter.getEnrollmentsCountLessThan(),
+                filter.getCourseName(), filter.getCourseGrade());
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.repositories.specifications.StudentSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index from name and email trigrams to the sorted ids of the students containing them.
+ * Built once the application is ready and kept up to date through {@link SearchDataChangedEvent}s.
+ * Changes committed while the index is built are queued and replayed on top of the built index.
+ * It only yields candidates, a student owning all trigrams of a needle may still not contain the needle.
+ * Postings are changed in place under the write lock, searches intersect them under the read lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentNGramIndex {
+
+    private final StudentRepository studentRepository;
+    private final StudentSearchProperties properties;
+
+    // guarded by lock, writers are serialized by synchronized as well
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Posting> postings = new HashMap<>();
+    private final Map<Long, Set<String>> tokensByStudent = new HashMap<>();
+    private final Queue<SearchDataChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isInvertedIndexEnabled()) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onSearchDataChanged(SearchDataChangedEvent event) {
+        if (!properties.isInvertedIndexEnabled()) {
+            return;
+        }
+        if (event.type() == SearchDataChangedEvent.Type.RELOADED) {
+            rebuild();
+            return;
+        }
+        // queued first: a rebuild in progress replays the queue once it is done
+        pending.add(event);
+        if (ready) {
+            applyPending();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        ready = false;
+        List<StudentSummary> students = studentRepository.findSummaries(StudentSpecifications.fromFilter(null), Sort.by("id"));
+        Map<String, Posting> built = new HashMap<>();
+        Map<Long, Set<String>> tokens = new HashMap<>(students.size() * 2);
+        for (StudentSummary student : students) {
+            Set<String> studentTokens = tokens(student.name(), student.email());
+            tokens.put(student.id(), studentTokens);
+            // ascending ids, every add appends
+            studentTokens.forEach(token -> built.computeIfAbsent(token, key -> new Posting()).add(student.id()));
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postings.putAll(built);
+            tokensByStudent.clear();
+            tokensByStudent.putAll(tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        applyPending();
+        ready = true;
+        applyPending(); // changes queued between the first replay and ready
+        log.info("student n-gram index built with {} students and {} trigrams in {} ms",
+                tokensByStudent.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public synchronized void index(long studentId, String name, String email) {
+        Set<String> tokens = tokens(name, email);
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = tokensByStudent.put(studentId, tokens);
+            if (previous != null) {
+                previous.stream()
+                        .filter(token -> !tokens.contains(token))
+                        .forEach(token -> removePosting(token, studentId));
+            }
+            tokens.forEach(token -> postings.computeIfAbsent(token, key -> new Posting()).add(studentId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void remove(long studentId) {
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = tokensByStudent.remove(studentId);
+            if (previous != null) {
+                previous.forEach(token -> removePosting(token, studentId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return sorted ids of the students that may match the name and email of the filter,
+     * or {@code null} if the index cannot narrow the filter down
+     */
+    public long[] candidates(StudentFilter filter) {
+        if (!ready || filter == null) {
+            return null;
+        }
+        List<String> needleTokens = new ArrayList<>();
+        if (NGrams.isIndexable(filter.getName())) {
+            NGrams.trigrams(filter.getName()).forEach(gram -> needleTokens.add(Student.NAME_TOKEN_PREFIX + gram));
+        }
+        if (NGrams.isIndexable(filter.getEmail())) {
+            NGrams.trigrams(filter.getEmail()).forEach(gram -> needleTokens.add(Student.EMAIL_TOKEN_PREFIX + gram));
+        }
+        if (needleTokens.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Posting> lists = new ArrayList<>(needleTokens.size());
+            for (String token : needleTokens) {
+                Posting posting = postings.get(token);
+                if (posting == null) {
+                    return LongIds.EMPTY;
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(posting -> posting.size));
+            // copied: the postings change once the read lock is released
+            Posting smallest = lists.get(0);
+            long[] result = Arrays.copyOf(smallest.ids, smallest.size);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = LongIds.intersect(result, result.length, lists.get(i).ids, lists.get(i).size);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private synchronized void applyPending() {
+        for (SearchDataChangedEvent event = pending.poll(); event != null; event = pending.poll()) {
+            if (!(event.entity() instanceof Student student) || student.getId() == null) {
+                continue;
+            }
+            if (event.type() == SearchDataChangedEvent.Type.DELETED) {
+                remove(student.getId());
+            } else {
+                index(student.getId(), student.getName(), student.getEmail());
+            }
+        }
+    }
+
+    private void removePosting(String token, long studentId) {
+        Posting posting = postings.get(token);
+        if (posting != null && posting.remove(studentId) && posting.size == 0) {
+            postings.remove(token);
+        }
+    }
+
+    private static Set<String> tokens(String name, String email) {
+        Set<String> tokens = new HashSet<>();
+        NGrams.trigrams(name).forEach(gram -> tokens.add(Student.NAME_TOKEN_PREFIX + gram));
+        NGrams.trigrams(email).forEach(gram -> tokens.add(Student.EMAIL_TOKEN_PREFIX + gram));
+        return tokens;
+    }
+
+    /**
+     * Growable, sorted and duplicate free ids of one trigram, changed in place.
+     * New students have the highest id so far, adding them appends without shifting.
+     */
+    private static final class Posting {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            grow();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
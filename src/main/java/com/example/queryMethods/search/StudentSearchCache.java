@@ -0,0 +1,140 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time limited cache of the ids of the students matching a {@link StudentFilterKey}.
+ * A committed change only evicts the entries it may affect:
+ * <ul>
+ *     <li>a student: entries holding its id, and entries it may match now, judged by its own columns</li>
+ *     <li>an enrollment: entries holding the id of its student, and entries filtering by course or enrollment count</li>
+ *     <li>a course: entries filtering by course, and by enrollment count if the course was deleted</li>
+ * </ul>
+ * A reload invalidates all entries. Results loaded inside
+ * a read-write transaction are not cached, they may contain changes that are rolled back later.
+ * Only ids are shared between callers: a hit loads the students again by primary key, so every caller gets
+ * its own instances, attached to its own persistence context.
+ */
+@Component
+public class StudentSearchCache {
+
+    private final boolean enabled;
+    private final Cache<StudentFilterKey, long[]> results;
+    private long generation;
+
+    public StudentSearchCache(StudentSearchProperties properties) {
+        this.enabled = properties.isResultCacheEnabled();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getResultCacheMaximumSize())
+                .expireAfterWrite(properties.getResultCacheTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param loader loads the matching students on a miss, ordered by id
+     * @param byIds  loads the students of cached sorted ids on a hit
+     */
+    public List<Student> get(StudentFilter filter, Supplier<List<Student>> loader, Function<long[], List<Student>> byIds) {
+        if (!enabled || isReadWriteTransactionActive()) {
+            return loader.get();
+        }
+        StudentFilterKey key = StudentFilterKey.of(filter);
+        long[] cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached.length == 0 ? List.of() : byIds.apply(cached);
+        }
+
+        long loadedInGeneration = currentGeneration();
+        List<Student> loaded = loader.get();
+        long[] ids = loaded.stream().mapToLong(Student::getId).toArray();
+        synchronized (this) {
+            // a change committed while loading may not be visible in the loaded result
+            if (loadedInGeneration == generation) {
+                results.put(key, ids);
+            }
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public synchronized void onSearchDataChanged(SearchDataChangedEvent event) {
+        generation++;
+        if (event.type() == SearchDataChangedEvent.Type.RELOADED) {
+            results.invalidateAll();
+            return;
+        }
+        results.asMap().entrySet().removeIf(entry -> isAffected(entry.getKey(), entry.getValue(), event));
+    }
+
+    public CacheStats stats() {
+        return results.stats();
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private static boolean isAffected(StudentFilterKey filter, long[] ids, SearchDataChangedEvent event) {
+        boolean deleted = event.type() == SearchDataChangedEvent.Type.DELETED;
+        if (event.entity() instanceof Student student) {
+            return contains(ids, student.getId()) || !deleted && mayMatch(filter, student);
+        }
+        if (event.entity() instanceof Enrollment enrollment) {
+            Long studentId = enrollment.getStudent() == null ? null : enrollment.getStudent().getId();
+            return contains(ids, studentId) || filtersByCourse(filter) || filtersByEnrollmentCount(filter);
+        }
+        if (event.entity() instanceof Course) {
+            return filtersByCourse(filter) || deleted && filtersByEnrollmentCount(filter);
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the columns of the student itself rule the filter out, enrollments are not looked at
+     */
+    private static boolean mayMatch(StudentFilterKey filter, Student student) {
+        return (filter.id() == null || filter.id().equals(student.getId()))
+                && contains(student.getNameLower(), filter.name())
+                && contains(student.getEmailLower(), filter.email())
+                && (filter.ageGreaterThan() == null || student.getAge() > filter.ageGreaterThan())
+                && (filter.ageLessThan() == null || student.getAge() < filter.ageLessThan());
+    }
+
+    private static boolean filtersByCourse(StudentFilterKey filter) {
+        return filter.courseName() != null || filter.courseGrade() != null;
+    }
+
+    private static boolean filtersByEnrollmentCount(StudentFilterKey filter) {
+        return filter.enrollmentsCountGreaterThan() != null || filter.enrollmentsCountLessThan() != null;
+    }
+
+    private static boolean contains(long[] sortedIds, Long id) {
+        // without an id the entry can not be ruled out
+        return id == null || Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+
+    private static boolean contains(String lowerValue, String needle) {
+        return needle == null || lowerValue != null && lowerValue.contains(NGrams.normalize(needle));
+    }
+
+    private static boolean isReadWriteTransactionActive() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
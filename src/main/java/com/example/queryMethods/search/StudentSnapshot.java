@@ -0,0 +1,277 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.StudentSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable version of the searchable student data: students, their enrollments and the course names, strings in
+ * lower case. Changes never modify a version, {@link #apply(List)} derives the next one (copy on write), so a search
+ * holding a version reads one consistent state without locks, however many changes are applied meanwhile.
+ * Versions share all data the changes did not touch: an apply costs about the changes, not the number of students.
+ */
+public final class StudentSnapshot {
+
+    public record StudentRow(long id, String lowerName, String lowerEmail, int age) {
+    }
+
+    public record EnrollmentRow(long id, long studentId, Long courseId, Grade grade) {
+    }
+
+    /**
+     * A committed change of a student, enrollment or course, holding only the searchable values.
+     */
+    public sealed interface Change {
+
+        long id();
+    }
+
+    public record StudentSaved(long id, String name, String email, int age) implements Change {
+    }
+
+    public record StudentDeleted(long id) implements Change {
+    }
+
+    public record EnrollmentSaved(long id, Long studentId, Long courseId, Grade grade) implements Change {
+    }
+
+    public record EnrollmentDeleted(long id) implements Change {
+    }
+
+    public record CourseSaved(long id, String name) implements Change {
+    }
+
+    public record CourseDeleted(long id) implements Change {
+    }
+
+    /**
+     * What an {@link #apply(List)} changed: the students whose row or enrollments changed, whether any course did.
+     */
+    public record Delta(long version, long[] studentIds, boolean coursesChanged) {
+    }
+
+    // deltas kept per version, structures derived from an older version are built again
+    private static final int MAX_DELTAS = 64;
+    private static final AtomicLong LINEAGES = new AtomicLong();
+
+    private final long lineage;
+    private final long version;
+    private final List<Delta> deltas;
+    private final ChunkedLongMap<StudentRow> students;
+    private final ChunkedLongMap<EnrollmentRow> enrollments;
+    private final ChunkedLongMap<List<EnrollmentRow>> enrollmentsByStudent;
+    private final Map<Long, String> courseNames;
+    private final Map<Long, String> lowerCourseNames;
+    private volatile List<StudentRow> studentRows;
+
+    private StudentSnapshot(long lineage, long version, List<Delta> deltas, ChunkedLongMap<StudentRow> students,
+                            ChunkedLongMap<EnrollmentRow> enrollments, ChunkedLongMap<List<EnrollmentRow>> enrollmentsByStudent,
+                            Map<Long, String> courseNames, Map<Long, String> lowerCourseNames) {
+        this.lineage = lineage;
+        this.version = version;
+        this.deltas = deltas;
+        this.students = students;
+        this.enrollments = enrollments;
+        this.enrollmentsByStudent = enrollmentsByStudent;
+        this.courseNames = courseNames;
+        this.lowerCourseNames = lowerCourseNames;
+    }
+
+    /**
+     * @param courseNames course names by course id
+     */
+    public static StudentSnapshot build(List<StudentSummary> students, Map<Long, String> courseNames,
+                                        List<EnrollmentKey> enrollments) {
+        List<Change> changes = new ArrayList<>(students.size() + courseNames.size() + enrollments.size());
+        students.forEach(student -> changes.add(new StudentSaved(student.id(), student.name(), student.email(), student.age())));
+        courseNames.forEach((id, name) -> changes.add(new CourseSaved(id, name)));
+        enrollments.forEach(enrollment -> changes.add(
+                new EnrollmentSaved(enrollment.id(), enrollment.studentId(), enrollment.courseId(), enrollment.grade())));
+        return new StudentSnapshot(LINEAGES.incrementAndGet(), -1, List.of(), ChunkedLongMap.empty(), ChunkedLongMap.empty(),
+                ChunkedLongMap.empty(), Map.of(), Map.of())
+                .apply(changes, false);
+    }
+
+    /**
+     * @return the next version with the changes applied in order; saves are upserts and deletes of unknown ids
+     * are ignored, so applying a change twice is harmless
+     */
+    public StudentSnapshot apply(List<Change> changes) {
+        return apply(changes, true);
+    }
+
+    private StudentSnapshot apply(List<Change> changes, boolean recordDelta) {
+        ChunkedLongMap.Editor<StudentRow> nextStudents = students.edit();
+        ChunkedLongMap.Editor<EnrollmentRow> nextEnrollments = enrollments.edit();
+        ChunkedLongMap.Editor<List<EnrollmentRow>> nextEnrollmentsByStudent = enrollmentsByStudent.edit();
+        // few courses, copied by the first course change
+        Map<Long, String> nextCourseNames = null;
+        Map<Long, String> nextLowerCourseNames = null;
+        Set<Long> changedStudents = new HashSet<>();
+        for (Change change : changes) {
+            if (change instanceof StudentSaved saved) {
+                nextStudents.put(saved.id(), new StudentRow(saved.id(),
+                        NGrams.normalize(saved.name()), NGrams.normalize(saved.email()), saved.age()));
+                changedStudents.add(saved.id());
+            } else if (change instanceof StudentDeleted deleted) {
+                nextStudents.remove(deleted.id());
+                changedStudents.add(deleted.id());
+            } else if (change instanceof EnrollmentSaved saved) {
+                removeEnrollment(saved.id(), nextEnrollments, nextEnrollmentsByStudent, changedStudents);
+                if (saved.studentId() != null) {
+                    EnrollmentRow row = new EnrollmentRow(saved.id(), saved.studentId(), saved.courseId(), saved.grade());
+                    nextEnrollments.put(row.id(), row);
+                    List<EnrollmentRow> rows = nextEnrollmentsByStudent.get(row.studentId());
+                    nextEnrollmentsByStudent.put(row.studentId(), rows == null ? List.of(row) : concat(rows, row));
+                    changedStudents.add(row.studentId());
+                }
+            } else if (change instanceof EnrollmentDeleted deleted) {
+                removeEnrollment(deleted.id(), nextEnrollments, nextEnrollmentsByStudent, changedStudents);
+            } else if (change instanceof CourseSaved saved) {
+                nextCourseNames = nextCourseNames != null ? nextCourseNames : new HashMap<>(courseNames);
+                nextLowerCourseNames = nextLowerCourseNames != null ? nextLowerCourseNames : new HashMap<>(lowerCourseNames);
+                nextCourseNames.put(saved.id(), saved.name());
+                nextLowerCourseNames.put(saved.id(), NGrams.normalize(saved.name()));
+            } else if (change instanceof CourseDeleted deleted) {
+                nextCourseNames = nextCourseNames != null ? nextCourseNames : new HashMap<>(courseNames);
+                nextLowerCourseNames = nextLowerCourseNames != null ? nextLowerCourseNames : new HashMap<>(lowerCourseNames);
+                nextCourseNames.remove(deleted.id());
+                nextLowerCourseNames.remove(deleted.id());
+            }
+        }
+        List<Delta> nextDeltas = List.of();
+        if (recordDelta) {
+            Delta delta = new Delta(version + 1,
+                    changedStudents.stream().mapToLong(Long::longValue).sorted().toArray(), nextCourseNames != null);
+            nextDeltas = new ArrayList<>(deltas.subList(Math.max(0, deltas.size() - MAX_DELTAS + 1), deltas.size()));
+            nextDeltas.add(delta);
+            nextDeltas = List.copyOf(nextDeltas);
+        }
+        return new StudentSnapshot(lineage, version + 1, nextDeltas,
+                nextStudents.build(), nextEnrollments.build(), nextEnrollmentsByStudent.build(),
+                nextCourseNames == null ? courseNames : Collections.unmodifiableMap(nextCourseNames),
+                nextLowerCourseNames == null ? lowerCourseNames : Collections.unmodifiableMap(nextLowerCourseNames));
+    }
+
+    /**
+     * Identifies the snapshot built from the database and all the versions derived from it by {@link #apply(List)}.
+     */
+    public long lineage() {
+        return lineage;
+    }
+
+    /**
+     * Incremented by every {@link #apply(List)}, the first built version is 0.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * @return the students in no particular order, a list so that searches can split it into chunks;
+     * collected by the first search of the version rather than by every apply
+     */
+    public List<StudentRow> students() {
+        List<StudentRow> rows = studentRows;
+        if (rows == null) {
+            rows = List.copyOf(students.values());
+            studentRows = rows;
+        }
+        return rows;
+    }
+
+    /**
+     * @return the changes from the given version of the same lineage up to this one, oldest first;
+     * null if the version is of another lineage or too old, then the changes are not known any more
+     */
+    public List<Delta> changesSince(long lineage, long version) {
+        if (lineage != this.lineage || version > this.version) {
+            return null;
+        }
+        if (version == this.version) {
+            return List.of();
+        }
+        if (deltas.isEmpty() || deltas.get(0).version() > version + 1) {
+            return null;
+        }
+        return deltas.subList((int) (version + 1 - deltas.get(0).version()), deltas.size());
+    }
+
+    /**
+     * @return the student row, null if unknown
+     */
+    public StudentRow student(long id) {
+        return students.get(id);
+    }
+
+    public List<EnrollmentRow> enrollmentsOf(long studentId) {
+        List<EnrollmentRow> rows = enrollmentsByStudent.get(studentId);
+        return rows == null ? List.of() : rows;
+    }
+
+    /**
+     * @return the course names by course id, as written
+     */
+    public Map<Long, String> courseNames() {
+        return courseNames;
+    }
+
+    /**
+     * @return the lower case name of the course, null if unknown
+     */
+    public String lowerCourseName(Long courseId) {
+        return courseId == null ? null : lowerCourseNames.get(courseId);
+    }
+
+    /**
+     * @return the ids of the courses whose lower case name contains the lower case needle
+     */
+    public Set<Long> courseIdsWhereNameContains(String lowerNeedle) {
+        Set<Long> ids = new HashSet<>();
+        lowerCourseNames.forEach((id, name) -> {
+            if (name != null && name.contains(lowerNeedle)) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private static void removeEnrollment(long id, ChunkedLongMap.Editor<EnrollmentRow> enrollments,
+                                         ChunkedLongMap.Editor<List<EnrollmentRow>> enrollmentsByStudent,
+                                         Set<Long> changedStudents) {
+        EnrollmentRow previous = enrollments.remove(id);
+        if (previous == null) {
+            return;
+        }
+        changedStudents.add(previous.studentId());
+        List<EnrollmentRow> rows = enrollmentsByStudent.get(previous.studentId());
+        List<EnrollmentRow> remaining = rows == null ? List.of() : rows.stream()
+                .filter(row -> row.id() != id)
+                .toList();
+        if (remaining.isEmpty()) {
+            enrollmentsByStudent.remove(previous.studentId());
+        } else {
+            enrollmentsByStudent.put(previous.studentId(), remaining);
+        }
+    }
+
+    private static List<EnrollmentRow> concat(List<EnrollmentRow> rows, EnrollmentRow added) {
+        List<EnrollmentRow> all = new ArrayList<>(rows.size() + 1);
+        all.addAll(rows);
+        all.add(added);
+        return List.copyOf(all);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.EnrollmentRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.repositories.specifications.StudentSpecifications;
+import com.example.queryMethods.search.StudentSnapshot.Change;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Holds the current {@link StudentSnapshot}, built by the first search and then kept up to date incrementally:
+ * the rows of every committed change of a student, enrollment or course are queued and the next search reads them
+ * again and applies them in one copy on write step. While nothing is queued, searches read the published version
+ * without locking. The snapshot follows committed data only, changes of the caller's own open transaction are not
+ * visible. Events of concurrent transactions may be delivered out of order, so the state carried by an event is not
+ * trusted: the changed rows are read by id, a row that is gone was deleted.
+ */
+@Slf4j
+@Component
+public class StudentSnapshotHolder {
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Queue<RowKey> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean tracking;
+    private volatile StudentSnapshot snapshot;
+
+    private record RowKey(Class<?> entity, long id) {
+    }
+
+    public StudentSnapshotHolder(StudentRepository studentRepository, CourseRepository courseRepository,
+                                 EnrollmentRepository enrollmentRepository, PlatformTransactionManager transactionManager) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener
+    public void onSearchDataChanged(SearchDataChangedEvent event) {
+        if (event.type() == SearchDataChangedEvent.Type.RELOADED) {
+            reset();
+            return;
+        }
+        if (!tracking) {
+            return; // not built yet, the build reads the committed data anyway
+        }
+        RowKey row = rowKey(event.entity());
+        if (row != null) {
+            pending.add(row);
+        }
+    }
+
+    public StudentSnapshot get() {
+        StudentSnapshot current = snapshot;
+        return current != null && pending.isEmpty() ? current : update();
+    }
+
+    private synchronized StudentSnapshot update() {
+        if (snapshot == null) {
+            // rows committed while building are queued and read again on top
+            tracking = true;
+            snapshot = readOnlyTransaction.execute(status -> build());
+        }
+        Set<RowKey> changed = new HashSet<>();
+        for (RowKey row = pending.poll(); row != null; row = pending.poll()) {
+            changed.add(row);
+        }
+        if (!changed.isEmpty()) {
+            snapshot = snapshot.apply(readOnlyTransaction.execute(status -> read(changed)));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot and the queued changes, the next search builds it again from the committed data.
+     */
+    private synchronized void reset() {
+        tracking = false;
+        pending.clear();
+        snapshot = null;
+    }
+
+    private StudentSnapshot build() {
+        long start = System.nanoTime();
+        List<StudentSummary> students =
+                studentRepository.findSummaries(StudentSpecifications.fromFilter(null), Sort.by("id"));
+        Map<Long, String> courseNames = new LinkedHashMap<>();
+        courseRepository.findAll().forEach(course -> courseNames.put(course.getId(), course.getName()));
+        StudentSnapshot built = StudentSnapshot.build(students, courseNames, enrollmentRepository.findAllKeys());
+        log.info("student snapshot built for {} students in {} ms", built.size(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * @return the committed state of the rows, as saves of the rows found and deletes of the others
+     */
+    private List<Change> read(Set<RowKey> rows) {
+        Set<Long> studentIds = ids(rows, Student.class);
+        Set<Long> enrollmentIds = ids(rows, Enrollment.class);
+        Set<Long> courseIds = ids(rows, Course.class);
+        List<Change> changes = new ArrayList<>(rows.size());
+        if (!studentIds.isEmpty()) {
+            long[] ids = studentIds.stream().mapToLong(Long::longValue).toArray();
+            for (StudentSummary student : studentRepository.findSummaries(StudentSpecifications.idIn(ids), Sort.by("id"))) {
+                studentIds.remove(student.id());
+                changes.add(new StudentSnapshot.StudentSaved(student.id(), student.name(), student.email(), student.age()));
+            }
+            studentIds.forEach(id -> changes.add(new StudentSnapshot.StudentDeleted(id)));
+        }
+        if (!enrollmentIds.isEmpty()) {
+            for (EnrollmentKey enrollment : enrollmentRepository.findKeysByIds(List.copyOf(enrollmentIds))) {
+                enrollmentIds.remove(enrollment.id());
+                changes.add(new StudentSnapshot.EnrollmentSaved(enrollment.id(), enrollment.studentId(),
+                        enrollment.courseId(), enrollment.grade()));
+            }
+            enrollmentIds.forEach(id -> changes.add(new StudentSnapshot.EnrollmentDeleted(id)));
+        }
+        if (!courseIds.isEmpty()) {
+            for (Course course : courseRepository.findAllById(List.copyOf(courseIds))) {
+                courseIds.remove(course.getId());
+                changes.add(new StudentSnapshot.CourseSaved(course.getId(), course.getName()));
+            }
+            courseIds.forEach(id -> changes.add(new StudentSnapshot.CourseDeleted(id)));
+        }
+        return changes;
+    }
+
+    private static Set<Long> ids(Set<RowKey> rows, Class<?> entity) {
+        Set<Long> ids = new HashSet<>();
+        rows.stream().filter(row -> row.entity() == entity).forEach(row -> ids.add(row.id()));
+        return ids;
+    }
+
+    private static RowKey rowKey(Object entity) {
+        if (entity instanceof Student student && student.getId() != null) {
+            return new RowKey(Student.class, student.getId());
+        }
+        if (entity instanceof Enrollment enrollment && enrollment.getId() != null) {
+            return new RowKey(Enrollment.class, enrollment.getId());
+        }
+        if (entity instanceof Course course && course.getId() != null) {
+            return new RowKey(Course.class, course.getId());
+        }
+        return null;
+    }
+}
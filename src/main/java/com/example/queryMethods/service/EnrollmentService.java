@@ -0,0 +1,51 @@
+package com.example.queryMethods.service;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.CourseFilter;
+import com.example.queryMethods.models.filter.EnrollmentFilter;
+import com.example.queryMethods.models.projection.CourseSummary;
+import com.example.queryMethods.models.projection.EnrollmentSummary;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.EnrollmentRepository;
+import com.example.queryMethods.repositories.specifications.CourseSpecifications;
+import com.example.queryMethods.repositories.specifications.EnrollmentSpecifications;
+import com.example.queryMethods.search.NGrams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Enrollment and course centric searches, filtered by the database on the enrollment and course tables and returned
+ * as summaries: a report such as "the F grades of Advanced Physics" reads one row per enrollment instead of loading
+ * students and walking their enrollments.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EnrollmentService {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+
+    public Page<EnrollmentSummary> findAll(EnrollmentFilter filter, Pageable pageable) {
+        return enrollmentRepository.findSummaries(EnrollmentSpecifications.fromFilter(filter), pageable);
+    }
+
+    /**
+     * Same as {@link #findAll(EnrollmentFilter, Pageable)} with the course name matched exactly, ignoring case,
+     * instead of as a substring, so the (course_id, grade) index is used.
+     */
+    public Page<EnrollmentSummary> findAll(String courseName, Grade grade, Pageable pageable) {
+        return enrollmentRepository.findSummariesByCourseNameAndGrade(NGrams.normalize(courseName), grade, pageable);
+    }
+
+    public long count(EnrollmentFilter filter) {
+        return enrollmentRepository.count(EnrollmentSpecifications.fromFilter(filter));
+    }
+
+    public Page<CourseSummary> findCourses(CourseFilter filter, Pageable pageable) {
+        return courseRepository.findSummaries(CourseSpecifications.fromFilter(filter), pageable);
+    }
+}
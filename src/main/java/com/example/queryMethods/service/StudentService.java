@@ -1,56 +1,124 @@
 package com.example.queryMethods.service;
 
 
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.metrics.StudentFilterMetrics;
 import com.example.queryMethods.models.entity.Student;
 import com.example.queryMethods.models.filter.StudentFilter;
 import com.example.queryMethods.repositories.StudentRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.queryMethods.search.LongIds;
+import com.example.queryMethods.search.ParallelQueryExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 public class StudentService {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final StudentRepository studentRepository;
+    private final StudentFilterMetrics filterMetrics;
+    private final StudentSearchProperties properties;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StudentService(StudentRepository studentRepository, StudentFilterMetrics filterMetrics,
+                          StudentSearchProperties properties, ParallelQueryExecutor parallelQueryExecutor,
+                          PlatformTransactionManager transactionManager) {
+        this.studentRepository = studentRepository;
+        this.filterMetrics = filterMetrics;
+        this.properties = properties;
+        this.parallelQueryExecutor = parallelQueryExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
+    /**
+     * The sequential search runs in one read-only transaction. The parallel search opens none around the
+     * sub-queries: each of them takes its own connection, holding a further one meanwhile could exhaust the pool.
+     */
     public List<Student> findAll(StudentFilter filter) {
-        List<Student> results = new ArrayList<>(studentRepository.findAll());
+        return filterMetrics.record("StudentService", filter, () -> properties.isParallelSubQueriesEnabled()
+                ? searchInParallel(filter)
+                : readOnlyTransaction.execute(status -> search(filter)));
+    }
+
+    /**
+     * Runs the id query of one criteria after the other, stops as soon as one of them matches nobody and
+     * loads only the students of the intersection.
+     */
+    private List<Student> search(StudentFilter filter) {
+        List<Supplier<long[]>> idQueries = idQueries(filter);
+        if (idQueries.isEmpty()) {
+            return studentRepository.findAll();
+        }
+        List<long[]> idLists = new ArrayList<>(idQueries.size());
+        for (Supplier<long[]> idQuery : idQueries) {
+            long[] ids = idQuery.get();
+            if (ids.length == 0) {
+                return new ArrayList<>();
+            }
+            idLists.add(ids);
+        }
+        return studentRepository.findAllByIds(LongIds.intersectAll(idLists), ID_BATCH_SIZE);
+    }
 
+    /**
+     * Runs the id query of every provided criteria concurrently and loads only the students of the intersection,
+     * so the latency is about the one of the slowest criteria query. The students are loaded in a transaction
+     * of their own once all sub-queries are done.
+     * The statements of the concurrent queries are not part of the students.filter.statements metric.
+     */
+    private List<Student> searchInParallel(StudentFilter filter) {
+        List<Supplier<long[]>> idQueries = idQueries(filter);
+        if (idQueries.isEmpty()) {
+            return studentRepository.findAll();
+        }
+        long[] ids = LongIds.intersectAll(parallelQueryExecutor.invokeAll(idQueries));
+        return studentRepository.findAllByIds(ids, ID_BATCH_SIZE);
+    }
+
+    private List<Supplier<long[]>> idQueries(StudentFilter filter) {
         if (filter == null) {
-            return results;
+            return List.of();
         }
+        List<Supplier<List<Long>>> queries = new ArrayList<>();
         if (filter.getName() != null) {
-            results.retainAll(studentRepository.findByNameContainingIgnoreCase(filter.getName()));
+            queries.add(() -> studentRepository.findIdsByNameContainingIgnoreCase(filter.getName()));
         }
         if (filter.getEmail() != null) {
-            results.retainAll(studentRepository.findByEmailContainingIgnoreCase(filter.getEmail()));
+            queries.add(() -> studentRepository.findIdsByEmailContainingIgnoreCase(filter.getEmail()));
         }
         if (filter.getAgeGreaterThan() != null) {
-            results.retainAll(studentRepository.findByAgeGreaterThan(filter.getAgeGreaterThan()));
+            queries.add(() -> studentRepository.findIdsByAgeGreaterThan(filter.getAgeGreaterThan()));
         }
         if (filter.getAgeLessThan() != null) {
-            results.retainAll(studentRepository.findByAgeLessThan(filter.getAgeLessThan()));
+            queries.add(() -> studentRepository.findIdsByAgeLessThan(filter.getAgeLessThan()));
         }
         if (filter.getCourseName() != null && filter.getCourseGrade() != null) {
-            results.retainAll(studentRepository.findByEnrollmentsCourseNameAndGrade(filter.getCourseName(), filter.getCourseGrade()));
+            queries.add(() -> studentRepository.findIdsByEnrollmentsCourseNameAndGrade(filter.getCourseName(), filter.getCourseGrade()));
         } else if (filter.getCourseName() != null) {
-            results.retainAll(studentRepository.findByEnrollmentsCourseNameContainingIgnoreCase(filter.getCourseName()));
+            queries.add(() -> studentRepository.findIdsByEnrollmentsCourseNameContainingIgnoreCase(filter.getCourseName()));
         } else if (filter.getCourseGrade() != null) {
-            results.retainAll(studentRepository.findByEnrollmentsGrade(filter.getCourseGrade()));
+            queries.add(() -> studentRepository.findIdsByEnrollmentsGrade(filter.getCourseGrade()));
         }
         if (filter.getEnrollmentsCountGreaterThan() != null && filter.getEnrollmentsCountLessThan() != null) {
-            results.retainAll(studentRepository.findByEnrollmentsSizeBetween(
+            queries.add(() -> studentRepository.findIdsByEnrollmentsSizeBetween(
                     filter.getEnrollmentsCountGreaterThan(),
                     filter.getEnrollmentsCountLessThan()
             ));
+        } else if (filter.getEnrollmentsCountGreaterThan() != null) {
+            queries.add(() -> studentRepository.findIdsByEnrollmentCountGreaterThan(filter.getEnrollmentsCountGreaterThan()));
+        } else if (filter.getEnrollmentsCountLessThan() != null) {
+            queries.add(() -> studentRepository.findIdsByEnrollmentCountLessThan(filter.getEnrollmentsCountLessThan()));
         }
-
-        return results;
+        return queries.stream()
+                .<Supplier<long[]>>map(query -> () -> query.get().stream().mapToLong(Long::longValue).toArray())
+                .toList();
     }
 }
-
-
-
@@ -0,0 +1,86 @@
+package com.example.queryMethods.service;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.metrics.StudentFilterMetrics;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentFacets;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.search.StudentColumns;
+import com.example.queryMethods.search.StudentColumnsHolder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evaluates the filter in memory against {@link StudentColumns}: primitive columns for age and enrollment count
+ * and per grade / per course bitmaps over student ordinals. Only the matching students are loaded, by id.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentServiceBitmapVersion {
+
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final StudentRepository studentRepository;
+    private final StudentColumnsHolder columnsHolder;
+    private final StudentFilterMetrics filterMetrics;
+    private final StudentSearchProperties properties;
+
+    @Transactional(readOnly = true)
+    public List<Student> findAll(StudentFilter filter) {
+        return filterMetrics.record("StudentServiceBitmapVersion", filter, () -> filter == null
+                ? studentRepository.findAll()
+                : studentRepository.findAllByIds(findIds(filter), ID_BATCH_SIZE));
+    }
+
+    /**
+     * @return the sorted ids of the matching students, without touching the database once the columns are built
+     */
+    public long[] findIds(StudentFilter filter) {
+        StudentColumns columns = columnsHolder.get();
+        return columns.ids(columns.evaluate(filter));
+    }
+
+    /**
+     * Answers many filters at once: every filter is evaluated against the same columns, the union of the results
+     * is loaded with one pass of id batches and each student is shared by all the results it belongs to.
+     * The database work depends on the number of distinct matching students, not on the number of filters.
+     *
+     * @return the students matching each filter ordered by id, in the order of the filters
+     */
+    @Transactional(readOnly = true)
+    public List<List<Student>> findAllBatch(List<StudentFilter> filters) {
+        StudentColumns columns = columnsHolder.get();
+        List<BitSet> results = filters.stream().map(columns::evaluate).toList();
+        BitSet union = new BitSet(columns.size());
+        results.forEach(union::or);
+
+        Student[] byOrdinal = new Student[columns.size()];
+        for (Student student : studentRepository.findAllByIds(columns.ids(union), ID_BATCH_SIZE)) {
+            int ordinal = columns.ordinalOf(student.getId());
+            if (ordinal >= 0) {
+                byOrdinal[ordinal] = student;
+            }
+        }
+        // students deleted since the columns were built are skipped
+        return results.stream()
+                .map(result -> result.stream()
+                        .mapToObj(ordinal -> byOrdinal[ordinal])
+                        .filter(Objects::nonNull)
+                        .toList())
+                .toList();
+    }
+
+    /**
+     * Grade, course and age bucket counts of the matching students, from the bitmaps without touching the database.
+     */
+    public StudentFacets facets(StudentFilter filter) {
+        StudentColumns columns = columnsHolder.get();
+        return columns.facets(columns.evaluate(filter), properties.getFacetAgeBucketSize());
+    }
+}
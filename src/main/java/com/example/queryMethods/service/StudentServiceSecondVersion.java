@@ -1,43 +1,158 @@
 package com.example.queryMethods.service;
 
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.fetch.LazyLoadGuard;
+import com.example.queryMethods.metrics.StudentFilterMetrics;
 import com.example.queryMethods.models.entity.Student;
 import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.CompiledStudentFilter;
+import com.example.queryMethods.planner.FilterCriterion;
+import com.example.queryMethods.planner.StudentFilterPlan;
+import com.example.queryMethods.planner.StudentFilterPlanner;
 import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.repositories.specifications.StudentSpecifications;
+import com.example.queryMethods.search.ParallelFilterExecutor;
+import com.example.queryMethods.search.StudentSnapshot;
+import com.example.queryMethods.search.StudentSnapshotHolder;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 
+/**
+ * Lets the {@link StudentFilterPlanner} choose per filter between one pushed down select, an id lookup of the most
+ * selective criteria followed by in-memory filtering, or filtering all students in memory, by default against the
+ * {@link StudentSnapshot} so only the matching students are loaded.
+ * Criteria evaluated in memory are compiled into one {@link CompiledStudentFilter}, applied in a single pass
+ * from the most to the least selective one, in parallel chunks for large candidate sets ({@link ParallelFilterExecutor}).
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StudentServiceSecondVersion {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final StudentRepository studentRepository;
+    private final StudentFilterMetrics filterMetrics;
+    private final StudentFilterPlanner planner;
+    private final StudentSnapshotHolder snapshotHolder;
+    private final ParallelFilterExecutor parallelFilterExecutor;
+    private final StudentSearchProperties properties;
+    private final LazyLoadGuard lazyLoadGuard;
 
+    @Transactional(readOnly = true)
     public List<Student> findAll(StudentFilter filter) {
-        if (filter == null) {
-            return studentRepository.findAll(); // Return all students if no filter
-        }
+        return filterMetrics.record("StudentServiceSecondVersion", filter, () -> {
+            if (filter == null) {
+                return studentRepository.findAll(); // Return all students if no filter
+            }
+            return findAll(filter, explain(filter));
+        });
+    }
 
-        // Dynamically build queries
-        if (isOnlyOneFilterProvided(filter)) {
-            return querySingleCriteria(filter); // Optimize for single filter
-        }
+    /**
+     * @return the plan {@link #findAll(StudentFilter)} would execute, with its estimates and costs
+     */
+    public StudentFilterPlan explain(StudentFilter filter) {
+        StudentFilterPlan plan = planner.plan(filter);
+        log.debug("{}", plan.explain());
+        return plan;
+    }
+
+    /**
+     * Executes the given plan, e.g. one of {@link #explain(StudentFilter)} with another strategy.
+     */
+    @Transactional(readOnly = true)
+    public List<Student> findAll(StudentFilter filter, StudentFilterPlan plan) {
+        return switch (plan.strategy()) {
+            case SCAN -> studentRepository.findAll();
+            case PUSHDOWN -> plan.criteria().size() == 1
+                    ? querySingleCriteria(filter) // Optimize for single filter
+                    : studentRepository.findAll(StudentSpecifications.fromFilter(filter));
+            case INDEX_LOOKUP -> indexLookup(filter, plan.orderedCriteria());
+            case IN_MEMORY -> properties.isSnapshotEnabled()
+                    ? studentRepository.findAllByIds(snapshotIds(filter, plan.orderedCriteria()), ID_BATCH_SIZE)
+                    : loadAndFilterInMemory(filter, plan.orderedCriteria());
+        };
+    }
 
-        return queryMultipleCriteria(filter);
+    private List<Student> indexLookup(StudentFilter filter, List<FilterCriterion> criteria) {
+        long[] ids = drivingIds(criteria.get(0), filter).stream().mapToLong(Long::longValue).toArray();
+        List<FilterCriterion> residual = criteria.subList(1, criteria.size());
+        FetchPlan fetchPlan = fetchPlan(filter, residual);
+        return filterInMemory(filter, residual, fetchPlan, studentRepository.findAllByIds(ids, ID_BATCH_SIZE, fetchPlan));
     }
 
-    private boolean isOnlyOneFilterProvided(StudentFilter filter) {
-        long count = Stream.of(
-                filter.getName(), filter.getEmail(), filter.getAgeGreaterThan(), filter.getAgeLessThan(),
-                filter.getCourseName(), filter.getCourseGrade(), filter.getEnrollmentsCountGreaterThan(),
-                filter.getEnrollmentsCountLessThan()
-        ).filter(Objects::nonNull).count();
-        return count == 1;
+    private List<Student> loadAndFilterInMemory(StudentFilter filter, List<FilterCriterion> criteria) {
+        FetchPlan fetchPlan = fetchPlan(filter, criteria);
+        return filterInMemory(filter, criteria, fetchPlan,
+                studentRepository.findAll(StudentSpecifications.fromFilter(null), fetchPlan));
+    }
+
+    /**
+     * @return the sorted ids of the students of the current snapshot matching every criteria, no database round trip
+     */
+    private long[] snapshotIds(StudentFilter filter, List<FilterCriterion> criteria) {
+        StudentSnapshot snapshot = snapshotHolder.get();
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter, criteria, snapshot);
+        return parallelFilterExecutor.filter(snapshot.students(), student -> compiled.matches(snapshot, student)).stream()
+                .mapToLong(StudentSnapshot.StudentRow::id)
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * A lazy load while matching means the fetch plan of the criteria misses an association: one select per student.
+     */
+    private List<Student> filterInMemory(StudentFilter filter, List<FilterCriterion> criteria, FetchPlan fetchPlan,
+                                         List<Student> students) {
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter, criteria);
+        // guarded per student, the chunks of large candidate lists are matched on the pool threads
+        return parallelFilterExecutor.filter(students,
+                student -> lazyLoadGuard.guard(fetchPlan, () -> compiled.matches(student)));
+    }
+
+    private static FetchPlan fetchPlan(StudentFilter filter, List<FilterCriterion> criteria) {
+        return criteria.stream()
+                .map(criterion -> criterion.fetchPlan(filter))
+                .max(Enum::compareTo)
+                .orElse(FetchPlan.NONE);
+    }
+
+    private List<Long> drivingIds(FilterCriterion criterion, StudentFilter filter) {
+        return switch (criterion) {
+            case NAME -> studentRepository.findIdsByNameContainingIgnoreCase(filter.getName());
+            case EMAIL -> studentRepository.findIdsByEmailContainingIgnoreCase(filter.getEmail());
+            case AGE -> {
+                if (filter.getAgeGreaterThan() != null && filter.getAgeLessThan() != null) {
+                    yield studentRepository.findIdsByAgeBetween(filter.getAgeGreaterThan(), filter.getAgeLessThan());
+                }
+                yield filter.getAgeGreaterThan() != null
+                        ? studentRepository.findIdsByAgeGreaterThan(filter.getAgeGreaterThan())
+                        : studentRepository.findIdsByAgeLessThan(filter.getAgeLessThan());
+            }
+            case ENROLLMENT_COUNT -> {
+                if (filter.getEnrollmentsCountGreaterThan() != null && filter.getEnrollmentsCountLessThan() != null) {
+                    yield studentRepository.findIdsByEnrollmentsSizeBetween(
+                            filter.getEnrollmentsCountGreaterThan(), filter.getEnrollmentsCountLessThan());
+                }
+                yield filter.getEnrollmentsCountGreaterThan() != null
+                        ? studentRepository.findIdsByEnrollmentCountGreaterThan(filter.getEnrollmentsCountGreaterThan())
+                        : studentRepository.findIdsByEnrollmentCountLessThan(filter.getEnrollmentsCountLessThan());
+            }
+            case COURSE -> {
+                if (filter.getCourseName() != null && filter.getCourseGrade() != null) {
+                    yield studentRepository.findIdsByEnrollmentsCourseNameAndGrade(filter.getCourseName(), filter.getCourseGrade());
+                }
+                yield filter.getCourseName() != null
+                        ? studentRepository.findIdsByEnrollmentsCourseNameContainingIgnoreCase(filter.getCourseName())
+                        : studentRepository.findIdsByEnrollmentsGrade(filter.getCourseGrade());
+            }
+        };
     }
 
     private List<Student> querySingleCriteria(StudentFilter filter) {
@@ -47,6 +162,9 @@ public class StudentServiceSecondVersion {
         if (filter.getEmail() != null) {
             return studentRepository.findByEmailContainingIgnoreCase(filter.getEmail());
         }
+        if (filter.getAgeGreaterThan() != null && filter.getAgeLessThan() != null) {
+            return studentRepository.findByAgeGreaterThanAndAgeLessThan(filter.getAgeGreaterThan(), filter.getAgeLessThan());
+        }
         if (filter.getAgeGreaterThan() != null) {
             return studentRepository.findByAgeGreaterThan(filter.getAgeGreaterThan());
         }
@@ -68,65 +186,13 @@ public class StudentServiceSecondVersion {
                     filter.getEnrollmentsCountLessThan()
             );
         }
-
-        return studentRepository.findAll(); // Default case
-    }
-
-    private List<Student> queryMultipleCriteria(StudentFilter filter) {
-        List<Student> results = studentRepository.findByEnrollmentsNotNull();// fetch with all associations
-
-        // Apply filters dynamically
-        if (filter.getName() != null) {
-            results = results.stream()
-                    .filter(student -> student.getName().toLowerCase().contains(filter.getName().toLowerCase()))
-                    .collect(Collectors.toList());
-        }
-        if (filter.getEmail() != null) {
-            results = results.stream()
-                    .filter(student -> student.getEmail().toLowerCase().contains(filter.getEmail().toLowerCase()))
-                    .collect(Collectors.toList());
-        }
-        if (filter.getAgeGreaterThan() != null) {
-            results = results.stream()
-                    .filter(student -> student.getAge() > filter.getAgeGreaterThan())
-                    .collect(Collectors.toList());
-        }
-        if (filter.getAgeLessThan() != null) {
-            results = results.stream()
-                    .filter(student -> student.getAge() < filter.getAgeLessThan())
-                    .collect(Collectors.toList());
-        }
         if (filter.getEnrollmentsCountGreaterThan() != null) {
-            results = results.stream()
-                    .filter(student -> student.getEnrollments().size() > filter.getEnrollmentsCountGreaterThan())
-                    .collect(Collectors.toList());
+            return studentRepository.findByEnrollmentCountGreaterThan(filter.getEnrollmentsCountGreaterThan());
         }
         if (filter.getEnrollmentsCountLessThan() != null) {
-            results = results.stream()
-                    .filter(student -> student.getEnrollments().size() < filter.getEnrollmentsCountLessThan())
-                    .collect(Collectors.toList());
-        }
-        if (filter.getCourseName() != null && filter.getCourseGrade() != null) {
-            results = results.stream()
-                    .filter(student -> student.getEnrollments().stream()
-                            .anyMatch(enrollment ->
-                                    enrollment.getCourse().getName().toLowerCase()
-                                            .contains(filter.getCourseName().toLowerCase())
-                                    && filter.getCourseGrade().equals(enrollment.getGrade())))
-                    .collect(Collectors.toList());
-        } else if (filter.getCourseName() != null) {
-            results = results.stream()
-                    .filter(student -> student.getEnrollments().stream()
-                            .anyMatch(enrollment -> enrollment.getCourse().getName().toLowerCase().contains(filter.getCourseName().toLowerCase())))
-                    .collect(Collectors.toList());
-        }
-        else if (filter.getCourseGrade() != null) {
-            results = results.stream()
-                    .filter(student -> student.getEnrollments().stream()
-                            .anyMatch(enrollment -> filter.getCourseGrade().equals(enrollment.getGrade())))
-                    .collect(Collectors.toList());
+            return studentRepository.findByEnrollmentCountLessThan(filter.getEnrollmentsCountLessThan());
         }
 
-        return results;
+        return studentRepository.findAll(); // Default case
     }
 }
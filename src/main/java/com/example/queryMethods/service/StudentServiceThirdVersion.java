@@ -0,0 +1,191 @@
+package com.example.queryMethods.service;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.fetch.LazyLoadGuard;
+import com.example.queryMethods.metrics.StudentFilterMetrics;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentFacets;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.repositories.specifications.StudentSpecifications;
+import com.example.queryMethods.search.StudentNGramIndex;
+import com.example.queryMethods.search.StudentSearchCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Composes all provided filter fields into one {@link Specification},
+ * so the whole filter is executed as a single select statement in one round trip to the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentServiceThirdVersion {
+
+    private static final Sort KEYSET_TIE_BREAKER = Sort.by("id");
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final StudentRepository studentRepository;
+    private final StudentSearchProperties properties;
+    private final StudentNGramIndex nGramIndex;
+    private final StudentSearchCache searchCache;
+    private final StudentFilterMetrics filterMetrics;
+    private final LazyLoadGuard lazyLoadGuard;
+
+    /**
+     * Students ordered by id. While no student, enrollment or course changes, the {@link StudentSearchCache}
+     * keeps the matching ids and a repeated filter only loads the students by primary key.
+     */
+    public List<Student> findAll(StudentFilter filter) {
+        return filterMetrics.record("StudentServiceThirdVersion", filter, () -> searchCache.get(filter,
+                () -> studentRepository.findAll(specification(filter), KEYSET_TIE_BREAKER),
+                ids -> studentRepository.findAllByIds(ids, ID_BATCH_SIZE)));
+    }
+
+    /**
+     * Loads the associations of the plan in the same select, bypassing the result cache.
+     * Callers walking the associations can check them against the plan with {@link LazyLoadGuard#guard}.
+     */
+    public List<Student> findAll(StudentFilter filter, FetchPlan fetchPlan) {
+        if (fetchPlan == FetchPlan.NONE) {
+            return findAll(filter);
+        }
+        return lazyLoadGuard.guard(fetchPlan, () -> studentRepository.findAll(specification(filter), fetchPlan));
+    }
+
+    /**
+     * Number of matching students, counted by the database with one SELECT COUNT, no student is loaded.
+     */
+    public long count(StudentFilter filter) {
+        return studentRepository.count(specification(filter));
+    }
+
+    /**
+     * Whether any student matches, the database stops at the first matching row (LIMIT 1), no student is loaded.
+     */
+    public boolean exists(StudentFilter filter) {
+        return studentRepository.exists(specification(filter));
+    }
+
+    /**
+     * Grade, course and age bucket counts of the matching students, grouped by the database, no student is loaded.
+     */
+    public StudentFacets facets(StudentFilter filter) {
+        return studentRepository.facets(specification(filter), properties.getFacetAgeBucketSize());
+    }
+
+    public List<Student> findAll(StudentFilter filter, Sort sort) {
+        return studentRepository.findAll(specification(filter), sort);
+    }
+
+    /**
+     * Offset based paging, convenient for the first pages and when the total count is needed.
+     * For deep pages prefer {@link #scroll(StudentFilter, ScrollPosition, int)}.
+     */
+    public Page<Student> findAll(StudentFilter filter, Pageable pageable) {
+        return studentRepository.findAll(specification(filter), pageable);
+    }
+
+    /**
+     * Keyset (seek by id) paging: every window continues after the last id of the previous one,
+     * so the database never has to skip an offset and no count query is issued.
+     * Start with {@link ScrollPosition#keyset()} and continue with {@link Window#positionAt(int)}
+     * of the last element while {@link Window#hasNext()}.
+     */
+    public Window<Student> scroll(StudentFilter filter, ScrollPosition position, int size) {
+        return scroll(filter, Sort.unsorted(), position, size);
+    }
+
+    /**
+     * Keyset paging with a custom order. Unless the order already contains the id, it is appended as tie breaker
+     * so the keyset stays unique.
+     */
+    public Window<Student> scroll(StudentFilter filter, Sort sort, ScrollPosition position, int size) {
+        Sort keysetSort = sort.getOrderFor("id") == null ? sort.and(KEYSET_TIE_BREAKER) : sort;
+        return studentRepository.findBy(specification(filter), query -> query
+                .sortBy(keysetSort)
+                .limit(size)
+                .scroll(position));
+    }
+
+    /**
+     * Same filter as {@link #findAll(StudentFilter, Sort)} but selects only the summary columns,
+     * for callers that do not need the enrollments or managed entities.
+     */
+    public List<StudentSummary> findAllSummaries(StudentFilter filter, Sort sort) {
+        return studentRepository.findSummaries(specification(filter), sort);
+    }
+
+    public Page<StudentSummary> findAllSummaries(StudentFilter filter, Pageable pageable) {
+        return studentRepository.findSummaries(specification(filter), pageable);
+    }
+
+    /**
+     * Streams the matching students from a database cursor instead of materializing a list.
+     * The caller owns the transaction and has to close the stream, e.g. with try-with-resources.
+     * No association is fetched, the consumption can be wrapped in {@link LazyLoadGuard#guard} with
+     * {@link FetchPlan#NONE} to report the associations walked per student.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<Student> stream(StudentFilter filter) {
+        return studentRepository.stream(specification(filter), properties.getStreamFetchSize());
+    }
+
+    /**
+     * The next keyset page of summaries: at most {@code size} matching students with an id above {@code afterId},
+     * ordered by id, null for the first page. Each page is read in its own short read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public List<StudentSummary> findSummariesAfter(StudentFilter filter, Long afterId, int size) {
+        Specification<Student> specification = afterId == null
+                ? specification(filter)
+                : specification(filter).and(StudentSpecifications.idGreaterThan(afterId));
+        return studentRepository.findSummaries(specification, KEYSET_TIE_BREAKER, size);
+    }
+
+    /**
+     * Streams the summaries of the matching students ordered by id, same contract as {@link #stream(StudentFilter)}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<StudentSummary> streamSummaries(StudentFilter filter) {
+        return studentRepository.streamSummaries(specification(filter), properties.getStreamFetchSize());
+    }
+
+    /**
+     * Walks every matching student with constant memory, meant for exports and batch jobs.
+     * The persistence context is cleared periodically, so the consumer must not keep the students.
+     * No association is fetched, an association the consumer walks is one select per student and reported
+     * by the {@link LazyLoadGuard}.
+     */
+    @Transactional(readOnly = true)
+    public void forEach(StudentFilter filter, Consumer<Student> consumer) {
+        lazyLoadGuard.guard(FetchPlan.NONE, () -> studentRepository.forEach(specification(filter),
+                properties.getStreamFetchSize(), properties.getStreamClearInterval(), consumer));
+    }
+
+    private Specification<Student> specification(StudentFilter filter) {
+        Specification<Student> specification =
+                StudentSpecifications.fromFilter(filter, properties.isTrigramIndexEnabled());
+        if (properties.isInvertedIndexEnabled()) {
+            long[] candidates = nGramIndex.candidates(filter);
+            if (candidates != null && candidates.length <= properties.getInvertedIndexMaxCandidates()) {
+                // primary key lookup of the candidates, the remaining predicates verify them
+                specification = specification.and(StudentSpecifications.idIn(candidates));
+            }
+        }
+        return specification;
+    }
+}
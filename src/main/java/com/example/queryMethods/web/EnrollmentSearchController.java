@@ -0,0 +1,38 @@
+package com.example.queryMethods.web;
+
+import com.example.queryMethods.models.filter.CourseFilter;
+import com.example.queryMethods.models.filter.EnrollmentFilter;
+import com.example.queryMethods.models.projection.CourseSummary;
+import com.example.queryMethods.models.projection.EnrollmentSummary;
+import com.example.queryMethods.service.EnrollmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Search API over an {@link EnrollmentFilter} or a {@link CourseFilter} bound from the query parameters,
+ * paged with the {@code page}, {@code size} and {@code sort} parameters.
+ */
+@RestController
+@RequiredArgsConstructor
+public class EnrollmentSearchController {
+
+    private final EnrollmentService enrollmentService;
+
+    @GetMapping("/enrollments/search")
+    public PagedModel<EnrollmentSummary> search(EnrollmentFilter filter, Pageable pageable) {
+        return new PagedModel<>(enrollmentService.findAll(filter, pageable));
+    }
+
+    @GetMapping("/enrollments/count")
+    public long count(EnrollmentFilter filter) {
+        return enrollmentService.count(filter);
+    }
+
+    @GetMapping("/courses/search")
+    public PagedModel<CourseSummary> searchCourses(CourseFilter filter, Pageable pageable) {
+        return new PagedModel<>(enrollmentService.findCourses(filter, pageable));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.queryMethods.web;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentFacets;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Search API over a {@link StudentFilter} bound from the query parameters: counts, checks the existence of,
+ * aggregates facets of, or streams the matching students as newline delimited json.
+ * <p>
+ * When streaming, the request thread is released right away, the summaries are written on the async request
+ * executor. They are read in keyset pages of {@code students.search.stream-fetch-size} ids, each in its own short
+ * read-only transaction: writing to a slow client holds neither a connection nor a transaction, and at most a page
+ * plus the response buffer are held in memory, whatever the result size. A client disconnecting fails the write
+ * and no further page is read. Pages are read at different times, the stream is no snapshot of a single instant.
+ */
+@RestController
+@RequestMapping("/students")
+public class StudentSearchController {
+
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final StudentServiceThirdVersion studentService;
+    private final StudentSearchProperties properties;
+    private final ObjectWriter summaryWriter;
+
+    public StudentSearchController(StudentServiceThirdVersion studentService, StudentSearchProperties properties,
+                                   ObjectMapper objectMapper) {
+        this.studentService = studentService;
+        this.properties = properties;
+        this.summaryWriter = objectMapper.writerFor(StudentSummary.class);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> search(StudentFilter filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> write(filter, outputStream));
+    }
+
+    @GetMapping("/count")
+    public long count(StudentFilter filter) {
+        return studentService.count(filter);
+    }
+
+    @GetMapping("/exists")
+    public boolean exists(StudentFilter filter) {
+        return studentService.exists(filter);
+    }
+
+    @GetMapping("/facets")
+    public StudentFacets facets(StudentFilter filter) {
+        return studentService.facets(filter);
+    }
+
+    private void write(StudentFilter filter, OutputStream outputStream) throws IOException {
+        int pageSize = properties.getStreamFetchSize();
+        int sinceFlush = 0;
+        Long afterId = null;
+        List<StudentSummary> page;
+        do {
+            page = studentService.findSummariesAfter(filter, afterId, pageSize);
+            for (StudentSummary summary : page) {
+                outputStream.write(summaryWriter.writeValueAsBytes(summary));
+                outputStream.write(LINE_SEPARATOR);
+                if (++sinceFlush >= properties.getStreamFlushInterval()) {
+                    outputStream.flush();
+                    sinceFlush = 0;
+                }
+                afterId = summary.id();
+            }
+        } while (page.size() == pageSize);
+        outputStream.flush();
+    }
+}
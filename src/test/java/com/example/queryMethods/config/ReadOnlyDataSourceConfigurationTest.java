@@ -0,0 +1,105 @@
+package com.example.queryMethods.config;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// the replica is the same in-memory database, reached through its own read-only pool
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-only-routing-test",
+        "students.datasource.read-only.url=jdbc:h2:mem:read-only-routing-test"
+})
+public class ReadOnlyDataSourceConfigurationTest {
+
+    @Autowired
+    HikariDataSource writeDataSource;
+
+    @Autowired
+    HikariDataSource readOnlyDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    StudentServiceThirdVersion studentServiceThirdVersion;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Test
+    public void readOnlyTransaction_ShouldUseTheReadOnlyPool() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        int[] activeConnections = transaction.execute(status -> {
+            studentServiceThirdVersion.count(new StudentFilter());
+            return activeConnections();
+        });
+
+        assertEquals(0, activeConnections[0]);
+        assertEquals(1, activeConnections[1]);
+    }
+
+    @Test
+    public void readWriteTransaction_ShouldUseTheWritePool() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int[] activeConnections = transaction.execute(status -> {
+            studentServiceThirdVersion.count(new StudentFilter());
+            return activeConnections();
+        });
+
+        assertEquals(1, activeConnections[0]);
+        assertEquals(0, activeConnections[1]);
+    }
+
+    @Test
+    public void search_insideReadOnlyTransaction_ShouldLoadStudentsReadOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        List<Boolean> readOnly = transaction.execute(status -> readOnlyFlags());
+
+        assertFalse(readOnly.isEmpty());
+        assertFalse(readOnly.contains(false));
+    }
+
+    @Test
+    public void search_insideReadWriteTransaction_ShouldKeepStudentsDirtyChecked() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<Boolean> readOnly = transaction.execute(status -> readOnlyFlags());
+
+        assertFalse(readOnly.isEmpty());
+        assertFalse(readOnly.contains(true));
+    }
+
+    private List<Boolean> readOnlyFlags() {
+        Session session = entityManager.unwrap(Session.class);
+        try (Stream<Student> students = studentServiceThirdVersion.stream(new StudentFilter())) {
+            return students.map(session::isReadOnly).toList();
+        }
+    }
+
+    private int[] activeConnections() {
+        return new int[]{
+                writeDataSource.getHikariPoolMXBean().getActiveConnections(),
+                readOnlyDataSource.getHikariPoolMXBean().getActiveConnections()
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.queryMethods.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StudentSearchPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    public void facetAgeBucketSize_ShouldBeBound() {
+        contextRunner.withPropertyValues("students.search.facet-age-bucket-size=10")
+                .run(context -> assertEquals(10, context.getBean(StudentSearchProperties.class).getFacetAgeBucketSize()));
+    }
+
+    @Test
+    public void facetAgeBucketSize_notPositive_ShouldFailTheStartup() {
+        contextRunner.withPropertyValues("students.search.facet-age-bucket-size=0")
+                .run(context -> {
+                    assertNotNull(context.getStartupFailure());
+                    Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+                    assertTrue(cause.getMessage().contains("facet-age-bucket-size must be positive"), cause::getMessage);
+                });
+    }
+
+    @Test
+    public void parallelismAndStreamIntervals_notPositive_ShouldFailTheStartup() {
+        for (String property : new String[]{"stream-fetch-size", "stream-clear-interval", "sub-query-parallelism", "filter-parallelism"}) {
+            contextRunner.withPropertyValues("students.search." + property + "=0")
+                    .run(context -> {
+                        assertNotNull(context.getStartupFailure(), property);
+                        Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+                        assertTrue(cause.getMessage().contains(property + " must be positive"), cause::getMessage);
+                    });
+        }
+    }
+
+    @EnableConfigurationProperties(StudentSearchProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.queryMethods.fetch;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "students.search.lazy-load-guard=fail",
+        "spring.datasource.url=jdbc:h2:mem:lazy-load-guard-test"
+})
+@Transactional
+public class LazyLoadGuardTest {
+
+    @Autowired
+    LazyLoadGuard lazyLoadGuard;
+
+    @Autowired
+    StudentServiceThirdVersion studentService;
+
+    @Test
+    public void loadsInsideThePlan_ShouldPass() {
+        List<Student> students = studentService.findAll(gradeFilter(), FetchPlan.ENROLLMENTS_AND_COURSE);
+
+        long courseNames = lazyLoadGuard.guard(FetchPlan.ENROLLMENTS_AND_COURSE, () -> students.stream()
+                .flatMap(student -> student.getEnrollments().stream())
+                .map(enrollment -> enrollment.getCourse().getName())
+                .count());
+
+        assertFalse(students.isEmpty());
+        assertTrue(courseNames > 0);
+    }
+
+    @Test
+    public void lazyCollectionOutsideThePlan_ShouldFail() {
+        List<Student> students = studentService.findAll(gradeFilter(), FetchPlan.NONE);
+
+        assertThrows(LazyLoadOutsideFetchPlanException.class, () -> lazyLoadGuard.guard(FetchPlan.NONE,
+                () -> students.forEach(student -> student.getEnrollments().size())));
+    }
+
+    @Test
+    public void lazyProxyOutsideThePlan_ShouldFail() {
+        List<Student> students = studentService.findAll(gradeFilter(), FetchPlan.ENROLLMENTS);
+        Enrollment enrollment = students.get(0).getEnrollments().iterator().next();
+
+        assertThrows(LazyLoadOutsideFetchPlanException.class, () -> lazyLoadGuard.guard(FetchPlan.ENROLLMENTS,
+                () -> enrollment.getCourse().getName()));
+    }
+
+    @Test
+    public void forEachConsumerWalkingAnAssociation_ShouldFail() {
+        // thrown inside the repository call, translated by its proxy
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> studentService.forEach(gradeFilter(), student -> student.getEnrollments().size()));
+
+        assertInstanceOf(LazyLoadOutsideFetchPlanException.class, NestedExceptionUtils.getMostSpecificCause(exception));
+    }
+
+    @Test
+    public void lazyLoadOutsideAGuardedSection_ShouldPass() {
+        List<Student> students = studentService.findAll(gradeFilter(), FetchPlan.NONE);
+
+        assertTrue(students.stream().allMatch(student -> student.getEnrollments().size() > 0));
+    }
+
+    private static StudentFilter gradeFilter() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(Grade.C);
+        return filter;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.queryMethods.metrics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Asserts the exact number of sql statements an action fires on the current thread.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertStatementCount(SqlStatementCounter counter, long expected, Supplier<T> action) {
+        long before = counter.currentThreadCount();
+        T result = action.get();
+        assertEquals(expected, counter.currentThreadCount() - before, "sql statements");
+        return result;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.queryMethods.metrics;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.StudentFilterPlan;
+import com.example.queryMethods.service.StudentService;
+import com.example.queryMethods.service.StudentServiceBitmapVersion;
+import com.example.queryMethods.service.StudentServiceSecondVersion;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.queryMethods.metrics.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StudentFilterMetricsTest {
+
+    @Autowired
+    SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    StudentService studentService;
+
+    @Autowired
+    StudentServiceSecondVersion studentServiceSecondVersion;
+
+    @Autowired
+    StudentServiceThirdVersion studentServiceThirdVersion;
+
+    @Autowired
+    StudentServiceBitmapVersion studentServiceBitmapVersion;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void enableStatistics() {
+        // only gathered with the dev profile, switched on for the entity load counts
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void studentService_ShouldFireOneStatementPerCriteriaPlusOne() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setName("a");
+        filter.setAgeGreaterThan(20);
+        filter.setCourseGrade(Grade.A);
+
+        // test & assert
+        assertStatementCount(sqlStatementCounter, 4, () -> studentService.findAll(filter));
+    }
+
+    @Test
+    public void studentService_ShouldStopAtTheFirstCriteriaMatchingNobody() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("nonexistent-email@example.com");
+        filter.setAgeGreaterThan(20);
+        filter.setCourseGrade(Grade.A);
+
+        // test
+        List<Student> students = assertStatementCount(sqlStatementCounter, 1, () -> studentService.findAll(filter));
+
+        // assert
+        assertTrue(students.isEmpty());
+    }
+
+    @Test
+    public void secondVersion_SingleCriteria_ShouldFireOneStatement() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("@");
+        studentServiceSecondVersion.findAll(filter); // gathers the planner statistics and builds the snapshot
+
+        // test & assert
+        assertStatementCount(sqlStatementCounter, 1, () -> studentServiceSecondVersion.findAll(filter));
+    }
+
+    @Test
+    public void thirdVersion_CountAndExists_ShouldFireOneStatement_AndLoadNoEntity() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setName("a");
+        filter.setCourseGrade(Grade.B);
+        long entitiesLoaded = statistics.getEntityLoadCount();
+
+        // test
+        long count = assertStatementCount(sqlStatementCounter, 1, () -> studentServiceThirdVersion.count(filter));
+        boolean exists = assertStatementCount(sqlStatementCounter, 1, () -> studentServiceThirdVersion.exists(filter));
+
+        // assert
+        assertEquals(count > 0, exists);
+        assertEquals(entitiesLoaded, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void thirdVersion_Facets_ShouldFireOneStatement_AndLoadNoEntity() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("@");
+        filter.setAgeGreaterThan(19);
+        long entitiesLoaded = statistics.getEntityLoadCount();
+
+        // test & assert
+        assertStatementCount(sqlStatementCounter, 1, () -> studentServiceThirdVersion.facets(filter));
+        assertEquals(entitiesLoaded, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void bitmapVersion_Batch_ShouldFireOneStatementForAllFilters() {
+        // create
+        List<StudentFilter> filters = new ArrayList<>();
+        for (Grade grade : Grade.values()) {
+            StudentFilter filter = new StudentFilter();
+            filter.setCourseGrade(grade);
+            filters.add(filter);
+        }
+        studentServiceBitmapVersion.findIds(filters.get(0)); // builds the columns
+
+        // test
+        List<List<Student>> results = assertStatementCount(sqlStatementCounter, 1,
+                () -> studentServiceBitmapVersion.findAllBatch(filters));
+
+        // assert
+        assertEquals(filters.size(), results.size());
+    }
+
+    @Test
+    public void thirdVersion_ShouldFireOneStatement_AndOneIdLookupOnceCached() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("@");
+        filter.setAgeLessThan(33);
+        filter.setEnrollmentsCountGreaterThan(1);
+
+        // test & assert
+        List<Student> first = assertStatementCount(sqlStatementCounter, 1, () -> studentServiceThirdVersion.findAll(filter));
+        List<Student> second = assertStatementCount(sqlStatementCounter, 1, () -> studentServiceThirdVersion.findAll(filter));
+        assertEquals(first.stream().map(Student::getId).toList(), second.stream().map(Student::getId).toList());
+    }
+
+    @Test
+    public void bitmapVersion_ShouldOnlyLoadTheMatchingStudents() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(0);
+        studentServiceBitmapVersion.findIds(filter);
+
+        // test & assert
+        assertStatementCount(sqlStatementCounter, 1, () -> studentServiceBitmapVersion.findAll(filter));
+    }
+
+    @Test
+    public void filterSearch_ShouldBeRecordedPerEngineAndShape() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setName("b");
+        filter.setAgeLessThan(50);
+        Timer timer = meterRegistry.timer("students.filter",
+                "engine", "StudentService", "shape", "name+age", "outcome", "success");
+        long countBefore = timer.count();
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(countBefore + 1, timer.count());
+        assertNotNull(meterRegistry.find("students.filter.rows").tags("engine", "StudentService", "shape", "name+age")
+                .summary());
+        assertTrue(meterRegistry.get("students.filter.statements").tags("engine", "StudentService", "shape", "name+age")
+                .summary().max() >= 3);
+        assertTrue(students.size() <= meterRegistry.get("students.filter.rows").tags("shape", "name+age")
+                .summary().max());
+    }
+
+    @Test
+    public void repositoryCalls_ShouldBeExposed() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(30);
+
+        // test
+        studentServiceSecondVersion.findAll(filter,
+                studentServiceSecondVersion.explain(filter).withStrategy(StudentFilterPlan.Strategy.PUSHDOWN));
+
+        // assert
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "StudentRepository", "method", "findByAgeGreaterThan").timer());
+        assertNull(meterRegistry.find("hibernate.statements").functionCounter()); // dev profile only
+        assertTrue(meterRegistry.get("hibernate.sql.statements").counter().count() > 0);
+    }
+
+    @Test
+    public void shape_ShouldListTheProvidedCriteria() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("x");
+        filter.setEnrollmentsCountLessThan(3);
+        filter.setCourseName("Math");
+
+        // assert
+        assertEquals("none", StudentFilterMetrics.shape(null));
+        assertEquals("none", StudentFilterMetrics.shape(new StudentFilter()));
+        assertEquals("email+enrollmentsCount+courseName", StudentFilterMetrics.shape(filter));
+    }
+}
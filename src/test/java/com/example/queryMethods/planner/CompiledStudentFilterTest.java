@@ -0,0 +1,87 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.search.StudentSnapshot;
+import com.example.queryMethods.search.StudentSnapshot.StudentRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledStudentFilterTest {
+
+    private static final List<FilterCriterion> ALL_CRITERIA = List.of(FilterCriterion.values());
+
+    private static Student student(String name, String email, int age, String courseName, Grade grade) {
+        Student student = new Student(1L, name, age, email, new HashSet<>());
+        Course course = new Course(10L, courseName, 5, new HashSet<>());
+        student.getEnrollments().add(new Enrollment(100L, student, course, grade, null));
+        student.setEnrollmentCount(1);
+        return student;
+    }
+
+    private static StudentFilter filter() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("ANNA");
+        filter.setEmail("Mail.com");
+        filter.setAgeGreaterThan(18);
+        filter.setAgeLessThan(30);
+        filter.setEnrollmentsCountGreaterThan(0);
+        filter.setCourseName("math");
+        filter.setCourseGrade(Grade.A);
+        return filter;
+    }
+
+    @Test
+    public void matches_ShouldCompareIgnoringCaseEvenWithoutTheLowerCaseColumns() {
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter(), ALL_CRITERIA);
+
+        assertTrue(compiled.matches(student("Anna Doe", "anna@MAIL.com", 20, "Advanced Math", Grade.A)));
+        assertFalse(compiled.matches(student("Bob Doe", "anna@MAIL.com", 20, "Advanced Math", Grade.A)));
+        assertFalse(compiled.matches(student("Anna Doe", "anna@MAIL.com", 30, "Advanced Math", Grade.A)));
+        assertFalse(compiled.matches(student("Anna Doe", "anna@MAIL.com", 20, "Art", Grade.A)));
+        assertFalse(compiled.matches(student("Anna Doe", "anna@MAIL.com", 20, "Advanced Math", Grade.B)));
+    }
+
+    @Test
+    public void matches_ShouldOnlyEvaluateTheGivenCriteria() {
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter(), List.of(FilterCriterion.AGE));
+
+        assertTrue(compiled.matches(student("Bob", "bob@example.org", 20, "Art", Grade.F)));
+    }
+
+    @Test
+    public void matches_onSnapshot_ShouldResolveTheCoursesOnce() {
+        StudentSnapshot snapshot = StudentSnapshot.build(
+                List.of(new StudentSummary(1L, "Anna Doe", "anna@mail.com", 20, 2),
+                        new StudentSummary(2L, "Anna Roe", "anna.roe@mail.com", 25, 1),
+                        new StudentSummary(3L, "Anna Poe", "anna.poe@mail.com", 40, 1)),
+                Map.of(10L, "Math", 11L, "Applied Math", 12L, "Art"),
+                List.of(new EnrollmentKey(100L, 1L, 12L, Grade.A),
+                        new EnrollmentKey(101L, 1L, 11L, Grade.A),
+                        new EnrollmentKey(102L, 2L, 12L, Grade.A),
+                        new EnrollmentKey(103L, 3L, 10L, Grade.A)));
+
+        CompiledStudentFilter compiled = CompiledStudentFilter.compile(filter(), ALL_CRITERIA, snapshot);
+
+        Set<Long> ids = new HashSet<>();
+        for (StudentRow student : snapshot.students()) {
+            if (compiled.matches(snapshot, student)) {
+                ids.add(student.id());
+            }
+        }
+        assertEquals(Set.of(1L), ids);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.queryMethods.planner;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.StudentFilterPlan.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StudentFilterPlannerTest {
+
+    /**
+     * Students aged 18 to 27 with 1 to 5 enrollments spread evenly, half of them named "anna" and all of them
+     * on "mail.com". Every student is enrolled in "math", a hundredth of the students in "art" with grade A.
+     */
+    private static StudentStatistics statistics(long students) {
+        Map<Integer, Long> byAge = new HashMap<>();
+        for (int age = 18; age < 28; age++) {
+            byAge.put(age, students / 10);
+        }
+        Map<Integer, Long> byEnrollmentCount = new HashMap<>();
+        for (int count = 1; count <= 5; count++) {
+            byEnrollmentCount.put(count, students / 5);
+        }
+        Map<Grade, Long> byGrade = new EnumMap<>(Grade.class);
+        for (Grade grade : Grade.values()) {
+            byGrade.put(grade, students / 2);
+        }
+        Map<String, Long> byCourse = Map.of("math", students, "art", students / 100);
+        Map<String, Map<Grade, Long>> byCourseAndGrade = Map.of(
+                "math", Map.of(Grade.A, students / 6, Grade.B, students / 6),
+                "art", Map.of(Grade.A, students / 100));
+        List<String> names = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add(i % 2 == 0 ? "anna " + i : "bob " + i);
+            emails.add("student" + i + "@mail.com");
+        }
+        return new StudentStatistics(students, students * 3, byAge, byEnrollmentCount, byGrade, byCourse,
+                byCourseAndGrade, names, emails);
+    }
+
+    @Test
+    public void plan_withoutCriteria_ShouldScan() {
+        StudentFilterPlan plan = StudentFilterPlanner.plan(new StudentFilter(), statistics(1_000));
+
+        assertEquals(Strategy.SCAN, plan.strategy());
+        assertTrue(plan.criteria().isEmpty());
+    }
+
+    @Test
+    public void plan_ShouldOrderCriteriaBySelectivity() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("mail");
+        filter.setName("anna");
+        filter.setAgeGreaterThan(25);
+
+        StudentFilterPlan plan = StudentFilterPlanner.plan(filter, statistics(1_000));
+
+        assertEquals(List.of(FilterCriterion.AGE, FilterCriterion.NAME, FilterCriterion.EMAIL), plan.orderedCriteria());
+        assertEquals(0.2, plan.criteria().get(0).selectivity(), 1e-9);
+        assertEquals(0.5, plan.criteria().get(1).selectivity(), 1e-9);
+        assertEquals(1.0, plan.criteria().get(2).selectivity(), 1e-9);
+        assertEquals(100, plan.estimatedRows(), 1e-9);
+    }
+
+    @Test
+    public void plan_withSelectiveIndexedCriteria_ShouldLookUpIdsFirst() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName("art");
+        filter.setCourseGrade(Grade.A);
+        filter.setName("anna");
+
+        StudentFilterPlan plan = StudentFilterPlanner.plan(filter, statistics(100_000));
+
+        assertEquals(Strategy.INDEX_LOOKUP, plan.strategy());
+        assertEquals(FilterCriterion.COURSE, plan.orderedCriteria().get(0));
+    }
+
+    @Test
+    public void plan_withUnselectiveCriteria_ShouldPushDown() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("anna");
+        filter.setAgeGreaterThan(20);
+
+        StudentFilterPlan plan = StudentFilterPlanner.plan(filter, statistics(100_000));
+
+        assertEquals(Strategy.PUSHDOWN, plan.strategy());
+    }
+
+    @Test
+    public void plan_withManyCriteriaMatchingAlmostEveryone_ShouldFilterInMemory() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("mail");
+        filter.setAgeGreaterThan(17);
+        filter.setAgeLessThan(30);
+        filter.setEnrollmentsCountGreaterThan(0);
+
+        StudentFilterPlan plan = StudentFilterPlanner.plan(filter, statistics(100_000));
+
+        assertEquals(Strategy.IN_MEMORY, plan.strategy());
+    }
+
+    @Test
+    public void plan_withSnapshot_ShouldFilterInMemoryInsteadOfPushingDown() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("anna");
+        filter.setAgeGreaterThan(20);
+
+        StudentFilterPlan plan = StudentFilterPlanner.plan(filter, statistics(100_000), true);
+
+        assertEquals(Strategy.IN_MEMORY, plan.strategy());
+        assertTrue(plan.costs().get(Strategy.IN_MEMORY) < plan.costs().get(Strategy.PUSHDOWN));
+    }
+
+    @Test
+    public void plan_ShouldChooseTheCheapestStrategy() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("bob");
+        filter.setCourseName("math");
+        filter.setEnrollmentsCountLessThan(3);
+
+        StudentFilterPlan plan = StudentFilterPlanner.plan(filter, statistics(10_000));
+
+        double cheapest = plan.costs().values().stream().mapToDouble(Double::doubleValue).min().orElseThrow();
+        assertEquals(cheapest, plan.costs().get(plan.strategy()), 1e-9);
+        assertEquals(3, plan.costs().size());
+    }
+
+    @Test
+    public void explain_ShouldDescribeEveryCriteria() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName("art");
+        filter.setCourseGrade(Grade.A);
+        filter.setName("anna");
+
+        String explain = StudentFilterPlanner.plan(filter, statistics(100_000)).explain();
+
+        assertTrue(explain.startsWith("INDEX_LOOKUP over 100000 students"), explain);
+        assertTrue(explain.contains("1. course contains 'art'"), explain);
+        assertTrue(explain.contains("database, index lookup"), explain);
+        assertTrue(explain.contains("2. name contains 'anna'"), explain);
+        assertTrue(explain.contains("memory"), explain);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelFilterExecutorTest {
+
+    private ParallelFilterExecutor executor;
+
+    private ParallelFilterExecutor executor(int threshold, int parallelism) {
+        StudentSearchProperties properties = new StudentSearchProperties();
+        properties.setParallelFilterThreshold(threshold);
+        properties.setFilterParallelism(parallelism);
+        executor = new ParallelFilterExecutor(properties);
+        return executor;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void filter_aboveThreshold_ShouldKeepTheOrderOfTheCandidates() {
+        List<Integer> candidates = IntStream.range(0, 100_000).boxed().toList();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> matching = executor(1000, 4).filter(candidates, candidate -> {
+            threads.add(Thread.currentThread().getName());
+            return candidate % 3 == 0;
+        });
+
+        assertEquals(candidates.stream().filter(candidate -> candidate % 3 == 0).toList(), matching);
+        assertTrue(threads.stream().allMatch(thread -> thread.startsWith("student-filter-")), threads::toString);
+    }
+
+    @Test
+    public void filter_belowThreshold_ShouldRunOnTheCallingThread() {
+        String caller = Thread.currentThread().getName();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> matching = executor(1000, 4).filter(List.of(3, 1, 2), candidate -> {
+            threads.add(Thread.currentThread().getName());
+            return candidate != 1;
+        });
+
+        assertEquals(List.of(3, 2), matching);
+        assertEquals(Set.of(caller), threads);
+    }
+
+    @Test
+    public void filter_withParallelismOne_ShouldAlwaysBeSequential() {
+        ParallelFilterExecutor sequential = executor(0, 1);
+
+        assertFalse(sequential.isParallel(1_000_000));
+        assertEquals(List.of(2, 4), sequential.filter(List.of(1, 2, 3, 4), candidate -> candidate % 2 == 0));
+    }
+
+    @Test
+    public void filter_ShouldRethrowTheExceptionTypeOfThePredicate() {
+        List<Integer> candidates = IntStream.range(0, 10_000).boxed().toList();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> executor(100, 4)
+                .filter(candidates, candidate -> {
+                    if (candidate == 9_999) {
+                        throw new IllegalStateException("broken candidate");
+                    }
+                    return true;
+                }));
+        // the fork join pool may rethrow a copy of the exception thrown on a worker, wrapping the original
+        assertTrue(exception.getMessage().contains("broken candidate"), exception::getMessage);
+    }
+}
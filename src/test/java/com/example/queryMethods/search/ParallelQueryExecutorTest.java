@@ -0,0 +1,92 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.config.StudentSearchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelQueryExecutorTest {
+
+    private ParallelQueryExecutor executor;
+
+    private ParallelQueryExecutor executor(int parallelism) {
+        StudentSearchProperties properties = new StudentSearchProperties();
+        properties.setSubQueryParallelism(parallelism);
+        executor = new ParallelQueryExecutor(properties, new NoTransactionManager());
+        return executor;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void invokeAll_ShouldReturnTheResultsInTheOrderOfTheQueries() {
+        List<Supplier<Integer>> queries = List.of(() -> 1, () -> 2, () -> 3);
+
+        assertEquals(List.of(1, 2, 3), executor(2).invokeAll(queries));
+    }
+
+    @Test
+    public void invokeAll_failingQuery_ShouldInterruptRunningAndSkipPendingQueries() throws InterruptedException {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch slowInterrupted = new CountDownLatch(1);
+        AtomicBoolean pendingRan = new AtomicBoolean();
+        Supplier<Integer> slow = () -> {
+            slowStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                slowInterrupted.countDown();
+            }
+            return 1;
+        };
+        Supplier<Integer> failing = () -> {
+            try {
+                slowStarted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("broken query");
+        };
+        Supplier<Integer> pending = () -> {
+            pendingRan.set(true);
+            return 3;
+        };
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> executor(2).invokeAll(List.of(slow, failing, pending)));
+
+        assertEquals("broken query", exception.getMessage());
+        assertTrue(slowInterrupted.await(10, TimeUnit.SECONDS));
+        assertFalse(pendingRan.get());
+    }
+
+    private static final class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
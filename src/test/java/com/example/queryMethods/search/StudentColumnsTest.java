@@ -0,0 +1,72 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.StudentSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudentColumnsTest {
+
+    private static StudentSnapshot snapshot() {
+        return StudentSnapshot.build(
+                List.of(new StudentSummary(1L, "Anna Doe", "anna@mail.com", 20, 2),
+                        new StudentSummary(2L, "Bob Roe", "bob@mail.com", 30, 1)),
+                Map.of(10L, "Math", 11L, "Art"),
+                List.of(new EnrollmentKey(100L, 1L, 10L, Grade.A),
+                        new EnrollmentKey(101L, 1L, 11L, Grade.B),
+                        new EnrollmentKey(102L, 2L, 10L, Grade.C)));
+    }
+
+    private static long[] ids(StudentColumns columns, StudentFilter filter) {
+        return columns.ids(columns.evaluate(filter));
+    }
+
+    private static StudentFilter grade(Grade grade) {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(grade);
+        return filter;
+    }
+
+    @Test
+    public void apply_ShouldUpdateTheChangedStudentsOnly_AndLeaveThePreviousColumnsUnchanged() {
+        // create
+        StudentSnapshot first = snapshot();
+        StudentColumns columns = StudentColumns.build(first);
+        StudentSnapshot second = first.apply(List.of(
+                new StudentSnapshot.StudentSaved(3L, "Carl", "carl@mail.com", 40),
+                new StudentSnapshot.StudentDeleted(2L),
+                new StudentSnapshot.EnrollmentSaved(103L, 1L, 11L, Grade.C)));
+
+        // test
+        StudentColumns next = columns.apply(second);
+
+        // assert
+        assertEquals(second.version(), next.version());
+        assertArrayEquals(new long[]{1L, 3L}, ids(next, new StudentFilter()));
+        assertArrayEquals(new long[]{1L}, ids(next, grade(Grade.C)));
+        assertEquals(Map.of(Grade.A, 1L, Grade.B, 1L, Grade.C, 1L), next.facets(next.evaluate(null), 5).grades());
+        assertArrayEquals(new long[]{1L, 2L}, ids(columns, new StudentFilter()));
+        assertArrayEquals(new long[]{2L}, ids(columns, grade(Grade.C)));
+    }
+
+    @Test
+    public void apply_courseChangeOrStudentInsertedBeforeTheLastId_ShouldBuildAgain() {
+        // create
+        StudentSnapshot first = snapshot();
+        StudentColumns columns = StudentColumns.build(first);
+        StudentSnapshot renamed = first.apply(List.of(new StudentSnapshot.CourseSaved(10L, "Algebra")));
+        StudentSnapshot inserted = first.apply(List.of(new StudentSnapshot.StudentSaved(0L, "Zoe", "zoe@mail.com", 22)));
+        StudentFilter algebra = new StudentFilter();
+        algebra.setCourseName("algebra");
+
+        // test & assert
+        assertArrayEquals(new long[]{1L, 2L}, ids(columns.apply(renamed), algebra));
+        assertArrayEquals(new long[]{0L, 1L, 2L}, ids(columns.apply(inserted), new StudentFilter()));
+    }
+}
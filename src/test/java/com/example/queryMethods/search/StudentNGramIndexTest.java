@@ -0,0 +1,101 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "students.search.inverted-index-enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:inverted-index-test"
+})
+public class StudentNGramIndexTest {
+
+    @Autowired
+    StudentNGramIndex nGramIndex;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    StudentServiceThirdVersion studentService;
+
+    @Test
+    public void candidates_ShouldContainEveryMatchingStudent() {
+        // create
+        String partNameToFilter = STUDENT_NAMES[RANDOM.nextInt(STUDENT_NAMES.length)].toUpperCase();
+        List<Long> expectedIds = studentRepository.findAll().stream()
+                .filter(student -> student.getName().toLowerCase().contains(partNameToFilter.toLowerCase()))
+                .map(Student::getId)
+                .toList();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(partNameToFilter);
+
+        // test
+        long[] candidates = nGramIndex.candidates(filter);
+
+        // assert
+        assertTrue(nGramIndex.isReady());
+        assertNotNull(candidates);
+        expectedIds.forEach(id -> assertTrue(Arrays.binarySearch(candidates, id) >= 0));
+        assertEquals(expectedIds.size(), studentService.findAll(filter).size());
+    }
+
+    @Test
+    public void candidates_shortNeedle_ShouldNotNarrowDown() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("jo");
+
+        assertNull(nGramIndex.candidates(filter));
+    }
+
+    @Test
+    public void candidates_ShouldFollowSaveAndDelete() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("qqindexed");
+
+        // test
+        Student student = studentRepository.save(new Student(null, "Indexed Student", 20, "qqindexed@zoho.com", null));
+        long[] afterSave = nGramIndex.candidates(filter);
+        studentRepository.delete(student);
+        long[] afterDelete = nGramIndex.candidates(filter);
+
+        // assert
+        assertArrayEquals(new long[]{student.getId()}, afterSave);
+        assertEquals(0, afterDelete.length);
+    }
+
+    @Test
+    public void candidates_outOfOrderChanges_ShouldStaySorted() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("qqinplace");
+
+        // test
+        nGramIndex.index(-1, "In Place", "qqinplace1@zoho.com");
+        nGramIndex.index(-3, "In Place", "qqinplace3@zoho.com");
+        nGramIndex.index(-2, "In Place", "qqinplace2@zoho.com");
+        long[] afterIndex = nGramIndex.candidates(filter);
+        nGramIndex.remove(-2);
+        long[] afterRemove = nGramIndex.candidates(filter);
+        nGramIndex.remove(-1);
+        nGramIndex.remove(-3);
+
+        // assert
+        assertArrayEquals(new long[]{-3, -2, -1}, afterIndex);
+        assertArrayEquals(new long[]{-3, -1}, afterRemove);
+        assertEquals(0, nGramIndex.candidates(filter).length);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StudentSearchCacheTest {
+
+    @Autowired
+    StudentSearchCache searchCache;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    StudentServiceThirdVersion studentService;
+
+    @Test
+    public void repeatedFilter_ShouldBeServedFromCache() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(41);
+        long hitsBefore = searchCache.stats().hitCount();
+
+        // test
+        List<Student> first = studentService.findAll(filter);
+        filter = new StudentFilter();
+        filter.setAgeGreaterThan(41);
+        List<Student> second = studentService.findAll(filter);
+
+        // assert
+        assertFalse(first.isEmpty());
+        assertEquals(first.stream().map(Student::getId).toList(), second.stream().map(Student::getId).toList());
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(hitsBefore + 1, searchCache.stats().hitCount());
+    }
+
+    @Test
+    public void recalculatedEnrollmentCounts_ShouldInvalidateCachedResults() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeLessThan(30);
+        studentService.findAll(filter);
+        long hitsBefore = searchCache.stats().hitCount();
+
+        // test
+        studentRepository.recalculateEnrollmentCounts();
+        studentService.findAll(filter);
+
+        // assert
+        assertEquals(hitsBefore, searchCache.stats().hitCount());
+    }
+
+    @Test
+    public void committedChange_ShouldInvalidateCachedResults() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("@cache-test.org");
+        List<Student> before = studentService.findAll(filter);
+
+        // test
+        Student student = studentRepository.save(new Student(null, "Cache Test", 25, "student@cache-test.org", null));
+        List<Student> after = studentService.findAll(filter);
+        studentRepository.delete(student);
+        List<Student> afterDelete = studentService.findAll(filter);
+
+        // assert
+        assertEquals(0, before.size());
+        assertEquals(1, after.size());
+        assertEquals(0, afterDelete.size());
+    }
+
+    @Test
+    public void committedChangeOfAStudentTheFilterRulesOut_ShouldKeepCachedResults() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(45);
+        studentService.findAll(filter);
+        long hitsBefore = searchCache.stats().hitCount();
+
+        // test
+        Student younger = studentRepository.save(new Student(null, "Younger", 20, "younger@cache-test.org", null));
+        studentService.findAll(filter);
+        Student older = studentRepository.save(new Student(null, "Older", 46, "older@cache-test.org", null));
+        List<Student> afterOlder = studentService.findAll(filter);
+        studentRepository.deleteAll(List.of(younger, older));
+
+        // assert
+        assertEquals(hitsBefore + 1, searchCache.stats().hitCount());
+        assertTrue(afterOlder.stream().anyMatch(student -> student.getId().equals(older.getId())));
+    }
+
+    @Test
+    @Transactional
+    public void resultsInsideReadWriteTransaction_ShouldNotBeCached() {
+        // create
+        studentRepository.save(new Student(null, "Uncommitted", 25, "student@uncommitted.org", null));
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("@uncommitted.org");
+
+        // test
+        List<Student> first = studentService.findAll(filter);
+        List<Student> second = studentService.findAll(filter);
+
+        // assert
+        assertEquals(1, first.size());
+        assertNotSame(first, second);
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.StudentFilterPlan;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.EnrollmentRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentServiceSecondVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:student-snapshot-test")
+public class StudentSnapshotHolderTest {
+
+    @Autowired
+    StudentSnapshotHolder snapshotHolder;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    StudentServiceSecondVersion studentService;
+
+    @Test
+    public void committedChanges_ShouldBeAppliedIncrementally() {
+        // create
+        StudentSnapshot before = snapshotHolder.get();
+        Course course = new Course();
+        course.setName("Snapshot Studies");
+        course = courseRepository.save(course);
+
+        // test
+        Student student = studentRepository.save(new Student(null, "Snap Shot", 33, "snap.shot@gmail.com", null));
+        Enrollment enrollment = enrollmentRepository.save(new Enrollment(null, student, course, Grade.E, null));
+        StudentSnapshot added = snapshotHolder.get();
+        enrollmentRepository.delete(enrollment);
+        studentRepository.delete(student);
+        courseRepository.delete(course);
+        StudentSnapshot removed = snapshotHolder.get();
+
+        // assert
+        assertSame(removed, snapshotHolder.get());
+        assertEquals(before.size() + 1, added.size());
+        assertEquals(1, added.enrollmentsOf(student.getId()).size());
+        assertEquals("snapshot studies", added.lowerCourseName(course.getId()));
+        assertEquals(before.size(), removed.size());
+        assertTrue(removed.enrollmentsOf(student.getId()).isEmpty());
+        assertNull(removed.lowerCourseName(course.getId()));
+        assertTrue(removed.version() > added.version() && added.version() > before.version());
+    }
+
+    @Test
+    public void inMemorySearch_ShouldSeeCommittedStudents() {
+        // create
+        Course course = new Course();
+        course.setName("Incremental Course");
+        course = courseRepository.save(course);
+        Student student = studentRepository.save(new Student(null, "Incremental Student", 44, "incremental@gmail.com", null));
+        enrollmentRepository.save(new Enrollment(null, student, course, Grade.A, null));
+        StudentFilter filter = new StudentFilter();
+        filter.setName("incremental");
+        filter.setCourseName("incremental course");
+
+        // test
+        List<Student> students = studentService.findAll(filter,
+                studentService.explain(filter).withStrategy(StudentFilterPlan.Strategy.IN_MEMORY));
+
+        // assert
+        assertEquals(List.of(student.getId()), students.stream().map(Student::getId).toList());
+    }
+
+    @Test
+    public void staleChangeDeliveredLate_ShouldApplyTheCommittedRow() {
+        // create
+        snapshotHolder.get();
+        Student student = studentRepository.save(new Student(null, "Older Name", 30, "older@gmail.com", null));
+        student.setName("Newer Name");
+        student = studentRepository.save(student);
+        Student stale = new Student(student.getId(), "Older Name", 30, "older@gmail.com", null);
+
+        // test
+        snapshotHolder.onSearchDataChanged(new SearchDataChangedEvent(stale, SearchDataChangedEvent.Type.SAVED));
+        StudentSnapshot afterStale = snapshotHolder.get();
+        studentRepository.delete(student);
+        snapshotHolder.onSearchDataChanged(new SearchDataChangedEvent(stale, SearchDataChangedEvent.Type.SAVED));
+        StudentSnapshot afterDelete = snapshotHolder.get();
+
+        // assert
+        assertEquals("newer name", afterStale.student(student.getId()).lowerName());
+        assertNull(afterDelete.student(student.getId()));
+    }
+}
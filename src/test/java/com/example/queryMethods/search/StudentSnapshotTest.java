@@ -0,0 +1,82 @@
+package com.example.queryMethods.search;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.search.StudentSnapshot.EnrollmentRow;
+import com.example.queryMethods.search.StudentSnapshot.StudentRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudentSnapshotTest {
+
+    private static StudentSnapshot snapshot() {
+        return StudentSnapshot.build(
+                List.of(new StudentSummary(1L, "Anna Doe", "Anna@Mail.com", 20, 2),
+                        new StudentSummary(2L, "Bob Roe", "bob@mail.com", 30, 1)),
+                Map.of(10L, "Math", 11L, "Art"),
+                List.of(new EnrollmentKey(100L, 1L, 10L, Grade.A),
+                        new EnrollmentKey(101L, 1L, 11L, Grade.B),
+                        new EnrollmentKey(102L, 2L, 10L, Grade.C)));
+    }
+
+    @Test
+    public void build_ShouldHoldLowerCaseRowsAndEnrollmentsPerStudent() {
+        StudentSnapshot snapshot = snapshot();
+
+        assertEquals(0, snapshot.version());
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.students().contains(new StudentRow(1L, "anna doe", "anna@mail.com", 20)));
+        assertEquals(2, snapshot.enrollmentsOf(1L).size());
+        assertEquals("math", snapshot.lowerCourseName(10L));
+        assertNull(snapshot.lowerCourseName(null));
+    }
+
+    @Test
+    public void apply_ShouldLeaveThePreviousVersionUnchanged() {
+        StudentSnapshot first = snapshot();
+
+        StudentSnapshot second = first.apply(List.of(
+                new StudentSnapshot.StudentSaved(3L, "Carl", "carl@mail.com", 40),
+                new StudentSnapshot.StudentDeleted(2L),
+                new StudentSnapshot.EnrollmentDeleted(102L),
+                new StudentSnapshot.CourseSaved(10L, "Algebra")));
+
+        assertEquals(1, second.version());
+        assertEquals(2, first.size());
+        assertEquals(1, first.enrollmentsOf(2L).size());
+        assertEquals("math", first.lowerCourseName(10L));
+        assertEquals(List.of(1L, 3L), second.students().stream().map(StudentRow::id).sorted().toList());
+        assertTrue(second.enrollmentsOf(2L).isEmpty());
+        assertEquals("algebra", second.lowerCourseName(10L));
+    }
+
+    @Test
+    public void apply_savedEnrollment_ShouldMoveToItsNewStudentAndGrade() {
+        StudentSnapshot snapshot = snapshot().apply(List.of(
+                new StudentSnapshot.EnrollmentSaved(101L, 2L, 11L, Grade.F)));
+
+        assertEquals(List.of(new EnrollmentRow(100L, 1L, 10L, Grade.A)), snapshot.enrollmentsOf(1L));
+        assertEquals(2, snapshot.enrollmentsOf(2L).size());
+        assertTrue(snapshot.enrollmentsOf(2L).contains(new EnrollmentRow(101L, 2L, 11L, Grade.F)));
+    }
+
+    @Test
+    public void apply_sameChangesTwice_ShouldBeIdempotent() {
+        List<StudentSnapshot.Change> changes = List.of(
+                new StudentSnapshot.EnrollmentSaved(103L, 2L, 11L, Grade.A),
+                new StudentSnapshot.EnrollmentDeleted(100L),
+                new StudentSnapshot.CourseDeleted(99L));
+
+        StudentSnapshot once = snapshot().apply(changes);
+        StudentSnapshot twice = once.apply(changes);
+
+        assertEquals(once.enrollmentsOf(1L), twice.enrollmentsOf(1L));
+        assertEquals(once.enrollmentsOf(2L), twice.enrollmentsOf(2L));
+        assertEquals(2, twice.enrollmentsOf(2L).size());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.queryMethods.services;
+
+import com.example.queryMethods.metrics.SqlStatementCounter;
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.CourseFilter;
+import com.example.queryMethods.models.filter.EnrollmentFilter;
+import com.example.queryMethods.models.projection.CourseSummary;
+import com.example.queryMethods.models.projection.EnrollmentKey;
+import com.example.queryMethods.models.projection.EnrollmentSummary;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.EnrollmentRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.EnrollmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static com.example.queryMethods.metrics.SqlStatementAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class EnrollmentServiceTest {
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    SqlStatementCounter sqlStatementCounter;
+
+    @BeforeEach
+    public void setup() {
+        if(studentRepository.count() == 0) {
+            var students = initStudents();
+            studentRepository.saveAll(students);
+            courseRepository.deleteAll();
+            courseRepository.saveAll(initCoursesWithEnrollments(students));
+        }
+    }
+
+    @Test
+    public void findAll_byCourseAndGrade_ShouldReturnTheMatchingEnrollmentSummaries() {
+        // create
+        String courseName = COURSE_NAMES[1];
+        Grade grade = Grade.F;
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setCourseName(courseName.toUpperCase());
+        filter.setGrade(grade);
+        Set<Long> courseIds = courseIds(courseName);
+
+        // test
+        Page<EnrollmentSummary> page = enrollmentService.findAll(filter, Pageable.unpaged());
+
+        // assert
+        List<Long> expected = enrollmentRepository.findAllKeys().stream()
+                .filter(key -> courseIds.contains(key.courseId()) && key.grade() == grade)
+                .map(EnrollmentKey::id)
+                .sorted()
+                .toList();
+        assertEquals(expected, page.getContent().stream().map(EnrollmentSummary::id).toList());
+        assertTrue(page.getContent().stream().allMatch(summary ->
+                courseName.equals(summary.courseName()) && summary.grade() == grade && summary.studentName() != null));
+    }
+
+    @Test
+    public void findAll_byStudentAgeAndName_ShouldFilterOnTheJoinedStudent() {
+        // create
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setStudentName("doe");
+        filter.setStudentAgeGreaterThan(25);
+        filter.setStudentAgeLessThan(40);
+        Map<Long, Student> students = studentRepository.findAll().stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        // test
+        List<EnrollmentSummary> enrollments = enrollmentService.findAll(filter, Pageable.unpaged()).getContent();
+
+        // assert
+        List<Long> expected = enrollmentRepository.findAllKeys().stream()
+                .filter(key -> {
+                    Student student = students.get(key.studentId());
+                    return student.getName().toLowerCase().contains("doe")
+                            && student.getAge() > 25 && student.getAge() < 40;
+                })
+                .map(EnrollmentKey::id)
+                .sorted()
+                .toList();
+        assertEquals(expected, enrollments.stream().map(EnrollmentSummary::id).toList());
+    }
+
+    @Test
+    public void findAll_byNotes_ShouldIgnoreCase() {
+        // create
+        EnrollmentFilter matching = new EnrollmentFilter();
+        matching.setNotes("SOME NOTES");
+        EnrollmentFilter nonMatching = new EnrollmentFilter();
+        nonMatching.setNotes("no such notes");
+
+        // test & assert
+        assertEquals(enrollmentRepository.count(), enrollmentService.count(matching));
+        assertEquals(0, enrollmentService.count(nonMatching));
+    }
+
+    @Test
+    public void findAll_withPageRequest_ShouldPageInTheRequestedOrder() {
+        // create
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setGrade(Grade.A);
+        long total = enrollmentService.count(filter);
+        List<EnrollmentSummary> all = enrollmentService.findAll(filter, Pageable.unpaged()).getContent();
+        Comparator<EnrollmentSummary> byCourseThenId = Comparator.comparing(EnrollmentSummary::courseName)
+                .thenComparing(EnrollmentSummary::id);
+
+        // test
+        Page<EnrollmentSummary> page = assertStatementCount(sqlStatementCounter, 2, () -> enrollmentService.findAll(
+                filter, PageRequest.of(1, 5, Sort.by("course.name").and(Sort.by("id")))));
+
+        // assert
+        assertEquals(total, page.getTotalElements());
+        assertEquals(all.stream().sorted(byCourseThenId).skip(5).limit(5).toList(), page.getContent());
+    }
+
+    @Test
+    public void findAll_byExactCourseName_ShouldMatchTheFilter() {
+        // create
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setCourseName(COURSE_NAMES[1]);
+        filter.setGrade(Grade.B);
+
+        // test
+        Page<EnrollmentSummary> page = enrollmentService.findAll(COURSE_NAMES[1].toLowerCase(), Grade.B,
+                PageRequest.of(0, 1000, Sort.by("id")));
+
+        // assert
+        assertEquals(enrollmentService.findAll(filter, Pageable.unpaged()).getContent(), page.getContent());
+    }
+
+    @Test
+    public void findCourses_byCredits_ShouldReturnSummaries() {
+        // create
+        CourseFilter filter = new CourseFilter();
+        filter.setCreditsGreaterThan(2);
+        filter.setCreditsLessThan(6);
+
+        // test
+        Page<CourseSummary> page = enrollmentService.findCourses(filter, PageRequest.of(0, 2, Sort.by("credits")));
+
+        // assert
+        List<CourseSummary> expected = courseRepository.findAll().stream()
+                .filter(course -> course.getCredits() > 2 && course.getCredits() < 6)
+                .sorted(Comparator.comparing(Course::getCredits))
+                .map(course -> new CourseSummary(course.getId(), course.getName(), course.getCredits()))
+                .toList();
+        assertEquals(expected.size(), page.getTotalElements());
+        assertEquals(expected.subList(0, 2), page.getContent());
+    }
+
+    private Set<Long> courseIds(String courseName) {
+        return courseRepository.findAll().stream()
+                .filter(course -> course.getName().equals(courseName))
+                .map(Course::getId)
+                .collect(Collectors.toSet());
+    }
+}
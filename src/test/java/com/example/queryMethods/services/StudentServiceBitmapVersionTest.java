@@ -0,0 +1,345 @@
+package com.example.queryMethods.services;
+
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.EnrollmentRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentServiceBitmapVersion;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static com.example.queryMethods.InitialTestData.COURSE_NAMES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class StudentServiceBitmapVersionTest {
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    StudentServiceBitmapVersion studentService;
+
+    @Autowired
+    StudentServiceThirdVersion thirdVersion;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    private final Random rand = new Random();
+    private List<Student> dbStudents = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        if(studentRepository.count() == 0) {
+            List<Student> students = initStudents();
+            studentRepository.saveAll(students);
+            courseRepository.deleteAll();
+            courseRepository.saveAll(initCoursesWithEnrollments(students));
+        }
+        if(dbStudents.isEmpty()) {
+            dbStudents = studentRepository.findByEnrollmentsNotNull();
+        }
+    }
+
+    @Test
+    public void filterStudents_providingFullName_ShouldPass() {
+        // create
+        int rnd = rand.nextInt(dbStudents.size());
+        String nameToFilter = dbStudents.get(rnd).getName();
+        int count = (int) dbStudents.stream().filter(student -> student.getName().contains(nameToFilter)).count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(nameToFilter);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_providingPartNameAndPartEmail_ShouldPass() {
+        // create
+        String partNameToFilter = STUDENT_NAMES[RANDOM.nextInt(STUDENT_NAMES.length)].toLowerCase();
+        String partEmailToFilter = EMAIL_VENDORS[RANDOM.nextInt(EMAIL_VENDORS.length)].toLowerCase();
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getName().toLowerCase().contains(partNameToFilter) &&
+                        student.getEmail().toLowerCase().contains(partEmailToFilter))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(partNameToFilter);
+        filter.setEmail(partEmailToFilter);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_providingAgeBoundaries_ShouldPass() {
+        // create
+        int minAge = 20;
+        int maxAge = 30;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getAge() > minAge && student.getAge() < maxAge)
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(minAge);
+        filter.setAgeLessThan(maxAge);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_byEnrollmentCounts_ShouldPass() {
+        // create
+        int minCount = 3;
+        int maxCount = 6;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().size() > minCount &&
+                        student.getEnrollments().size() < maxCount)
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setEnrollmentsCountGreaterThan(minCount);
+        filter.setEnrollmentsCountLessThan(maxCount);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_enrolledInCourse_ShouldPass() {
+        // create
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> enrollment.getCourse().getName().toLowerCase().contains(randomCourseName.toLowerCase())))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName(randomCourseName);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_hasAnyGradeEqualsGiven_ShouldPass() {
+        // create
+        Grade randomGrade = Grade.C;
+
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade())))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_bySpecificGradeInGivenCourse_ShouldPass() {
+        // create
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+        Grade randomGrade = Grade.B;
+
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade()) &&
+                                enrollment.getCourse().getName().toLowerCase().contains(randomCourseName.toLowerCase())))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName(randomCourseName);
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+
+    @Test
+    public void filterStudents_allCriteriaCombined_ShouldPass() {
+        // create
+        String partEmailToFilter = EMAIL_VENDORS[RANDOM.nextInt(EMAIL_VENDORS.length)];
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+        Grade randomGrade = Grade.E;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEmail().contains(partEmailToFilter) &&
+                        student.getAge() > 19 && student.getEnrollments().size() < 7 &&
+                        student.getEnrollments().stream()
+                                .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade()) &&
+                                        enrollment.getCourse().getName().equals(randomCourseName)))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail(partEmailToFilter);
+        filter.setAgeGreaterThan(19);
+        filter.setEnrollmentsCountLessThan(7);
+        filter.setCourseName(randomCourseName);
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_afterCommittedEnrollment_ShouldSeeChange() {
+        // create
+        Student student = studentRepository.save(new Student(null, "Bitmap Newcomer", 33, "bitmap.newcomer@aol.com", null));
+        StudentFilter filter = new StudentFilter();
+        filter.setName("bitmap newcomer");
+        filter.setCourseGrade(Grade.A);
+        int before = studentService.findAll(filter).size();
+
+        // test
+        Enrollment enrollment = enrollmentRepository.save(
+                new Enrollment(null, student, courseRepository.findAll().get(0), Grade.A, "late enrollment"));
+        int after = studentService.findAll(filter).size();
+
+        // assert
+        assertEquals(0, before);
+        assertEquals(1, after);
+
+        enrollmentRepository.delete(enrollment);
+        studentRepository.delete(student);
+    }
+
+
+    /*** catch edge cases ***/
+
+    @Test
+    public void filterStudents_emptyFilter_ShouldReturnAllStudents() {
+        StudentFilter filter = new StudentFilter(); // Empty filter
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(dbStudents.size(), students.size());
+    }
+
+    @Test
+    public void filterStudents_nullFilter_ShouldReturnAllStudents() {
+        List<Student> students = studentService.findAll(null);
+
+        assertEquals(dbStudents.size(), students.size());
+    }
+
+    @Test
+    public void filterStudents_minimumAge_ShouldPass() {
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(Integer.MIN_VALUE);
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(dbStudents.size(), students.size()); // All students match minimum age
+    }
+
+    @Test
+    public void filterStudents_invalidCourseName_ShouldReturnNoResults() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName("Nonexistent Course");
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(0, students.size()); // No matches
+    }
+
+    @Test
+    public void filterStudents_invalidEmail_ShouldReturnNoResults() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("nonexistent-email@example.com");
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(0, students.size()); // No matches
+    }
+
+    @Test
+    public void facets_ShouldMatchTheFacetsGroupedByTheDatabase() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeLessThan(30);
+        filter.setCourseName(COURSE_NAMES[0].substring(0, 3));
+
+        // test & assert
+        assertEquals(thirdVersion.facets(filter), studentService.facets(filter));
+        assertEquals(thirdVersion.facets(new StudentFilter()), studentService.facets(new StudentFilter()));
+        assertEquals(studentRepository.count(), studentService.facets(null).students());
+    }
+
+    @Test
+    public void findAllBatch_ShouldAnswerEveryFilterLikeFindAll() {
+        // create
+        StudentFilter byName = new StudentFilter();
+        byName.setName(STUDENT_NAMES[0].substring(0, 2));
+        StudentFilter byCourseAndGrade = new StudentFilter();
+        byCourseAndGrade.setCourseName(COURSE_NAMES[1]);
+        byCourseAndGrade.setCourseGrade(Grade.C);
+        StudentFilter byAgeAndCount = new StudentFilter();
+        byAgeAndCount.setAgeLessThan(25);
+        byAgeAndCount.setEnrollmentsCountGreaterThan(2);
+        StudentFilter nobody = new StudentFilter();
+        nobody.setEmail("nonexistent-email@example.com");
+        List<StudentFilter> filters = List.of(byName, byCourseAndGrade, byAgeAndCount, nobody, byName);
+
+        // test
+        List<List<Student>> results = studentService.findAllBatch(filters);
+
+        // assert
+        assertEquals(filters.size(), results.size());
+        for (int i = 0; i < filters.size(); i++) {
+            assertEquals(ids(studentService.findAll(filters.get(i))), ids(results.get(i)));
+        }
+        assertTrue(results.get(3).isEmpty());
+    }
+
+    private static List<Long> ids(List<Student> students) {
+        return students.stream().map(Student::getId).sorted().toList();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.queryMethods.services;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentService;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.example.queryMethods.InitialTestData.COURSE_NAMES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * StudentService with concurrent id sub queries, checked against the single statement StudentServiceThirdVersion.
+ */
+@SpringBootTest(properties = {
+        "students.search.parallel-sub-queries-enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:parallel-sub-query-test"
+})
+public class StudentServiceParallelTest {
+
+    @Autowired
+    StudentService studentService;
+
+    @Autowired
+    StudentServiceThirdVersion referenceService;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Test
+    public void filterStudents_allCriteria_ShouldMatchSingleQuery() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("a");
+        filter.setEmail("@");
+        filter.setAgeGreaterThan(20);
+        filter.setAgeLessThan(60);
+        filter.setCourseName(COURSE_NAMES[1]);
+        filter.setCourseGrade(Grade.A);
+        filter.setEnrollmentsCountGreaterThan(1);
+        filter.setEnrollmentsCountLessThan(8);
+
+        assertSameStudents(filter);
+    }
+
+    @Test
+    public void filterStudents_courseAndAge_ShouldMatchSingleQuery() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(Grade.B);
+        filter.setAgeGreaterThan(30);
+
+        assertSameStudents(filter);
+    }
+
+    @Test
+    public void filterStudents_enrollmentCountBounds_ShouldMatchSingleQuery() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEnrollmentsCountLessThan(5);
+        filter.setName("e");
+
+        assertSameStudents(filter);
+    }
+
+    @Test
+    public void filterStudents_noMatch_ShouldReturnNoResults() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("nonexistent-email@example.com");
+        filter.setAgeGreaterThan(20);
+
+        assertEquals(0, studentService.findAll(filter).size());
+    }
+
+    @Test
+    public void filterStudents_emptyFilter_ShouldReturnAllStudents() {
+        assertEquals(studentRepository.count(), studentService.findAll(new StudentFilter()).size());
+        assertEquals(studentRepository.count(), studentService.findAll(null).size());
+    }
+
+    private void assertSameStudents(StudentFilter filter) {
+        List<Long> expected = referenceService.findAll(filter).stream().map(Student::getId).sorted().toList();
+        List<Long> actual = studentService.findAll(filter).stream().map(Student::getId).toList();
+        assertEquals(expected, actual);
+    }
+}
@@ -3,6 +3,8 @@ package com.example.queryMethods.services;
 import com.example.queryMethods.models.entity.Grade;
 import com.example.queryMethods.models.entity.Student;
 import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.planner.FilterCriterion;
+import com.example.queryMethods.planner.StudentFilterPlan;
 import com.example.queryMethods.repositories.CourseRepository;
 import com.example.queryMethods.repositories.StudentRepository;
 import com.example.queryMethods.service.StudentServiceSecondVersion;
@@ -17,6 +19,7 @@ import java.util.Random;
 
 import static com.example.queryMethods.InitialTestData.*;
 import static com.example.queryMethods.InitialTestData.COURSE_NAMES;
+import static com.example.queryMethods.planner.StudentFilterPlan.Strategy.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
@@ -238,4 +241,48 @@ public class StudentServiceSecondVersionTest {
         assertEquals(0, students.size()); // No matches
     }
 
+    @Test
+    public void filterStudents_everyStrategy_ShouldReturnTheSameStudents() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setName(STUDENT_NAMES[0].substring(0, 2));
+        filter.setAgeGreaterThan(20);
+        filter.setCourseName(COURSE_NAMES[0]);
+        filter.setEnrollmentsCountGreaterThan(1);
+        List<Long> expected = dbStudents.stream()
+                .filter(student -> student.getName().toLowerCase().contains(filter.getName().toLowerCase())
+                        && student.getAge() > 20 && student.getEnrollmentCount() > 1
+                        && student.getEnrollments().stream().anyMatch(enrollment ->
+                                enrollment.getCourse().getName().toLowerCase().contains(COURSE_NAMES[0].toLowerCase())))
+                .map(Student::getId)
+                .sorted()
+                .toList();
+        StudentFilterPlan plan = studentService.explain(filter);
+
+        // test & assert
+        for (StudentFilterPlan.Strategy strategy : List.of(PUSHDOWN, INDEX_LOOKUP, IN_MEMORY)) {
+            List<Long> ids = studentService.findAll(filter, plan.withStrategy(strategy)).stream()
+                    .map(Student::getId)
+                    .sorted()
+                    .toList();
+            assertEquals(expected, ids, strategy.name());
+        }
+    }
+
+    @Test
+    public void explain_ShouldListTheCriteriaFromTheMostSelective() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(Integer.MIN_VALUE);
+        filter.setCourseName("Nonexistent Course");
+
+        // test
+        StudentFilterPlan plan = studentService.explain(filter);
+
+        // assert
+        assertEquals(List.of(FilterCriterion.COURSE, FilterCriterion.AGE), plan.orderedCriteria());
+        assertEquals(dbStudents.size(), plan.students());
+        assertEquals(0, studentService.findAll(filter).size());
+    }
+
 }
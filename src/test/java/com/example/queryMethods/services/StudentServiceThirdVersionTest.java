@@ -0,0 +1,677 @@
+package com.example.queryMethods.services;
+
+import com.example.queryMethods.fetch.FetchPlan;
+import com.example.queryMethods.models.entity.Course;
+import com.example.queryMethods.models.entity.Enrollment;
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentFacets;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.EnrollmentRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static com.example.queryMethods.InitialTestData.COURSE_NAMES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class StudentServiceThirdVersionTest {
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    StudentServiceThirdVersion studentService;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private final Random rand = new Random();
+    private List<Student> dbStudents = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        if(studentRepository.count() == 0) {
+            List<Student> students = initStudents();
+            studentRepository.saveAll(students);
+            courseRepository.deleteAll();
+            courseRepository.saveAll(initCoursesWithEnrollments(students));
+        }
+        if(dbStudents.isEmpty()) {
+            dbStudents = studentRepository.findByEnrollmentsNotNull();
+        }
+    }
+
+    @Test
+    public void filterStudents_providingFullName_ShouldPass() {
+        // create
+        int rnd = rand.nextInt(dbStudents.size());
+        String nameToFilter = dbStudents.get(rnd).getName();
+        int count = (int) dbStudents.stream().filter(student -> student.getName().contains(nameToFilter)).count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(nameToFilter);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_providingPartNameAndPartEmail_ShouldPass() {
+        // create
+        String partNameToFilter = STUDENT_NAMES[RANDOM.nextInt(STUDENT_NAMES.length)].toLowerCase();
+        String partEmailToFilter = EMAIL_VENDORS[RANDOM.nextInt(EMAIL_VENDORS.length)].toLowerCase();
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getName().toLowerCase().contains(partNameToFilter) &&
+                        student.getEmail().toLowerCase().contains(partEmailToFilter))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(partNameToFilter);
+        filter.setEmail(partEmailToFilter);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_providingAgeBoundaries_ShouldPass() {
+        // create
+        int minAge = 20;
+        int maxAge = 30;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getAge() > minAge && student.getAge() < maxAge)
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(minAge);
+        filter.setAgeLessThan(maxAge);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_byEnrollmentCounts_ShouldPass() {
+        // create
+        int minCount = 3;
+        int maxCount = 6;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().size() > minCount &&
+                        student.getEnrollments().size() < maxCount)
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setEnrollmentsCountGreaterThan(minCount);
+        filter.setEnrollmentsCountLessThan(maxCount);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_byEnrollmentCountLowerBoundOnly_ShouldPass() {
+        // create
+        int minCount = 4;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().size() > minCount)
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setEnrollmentsCountGreaterThan(minCount);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_allCriteriaCombined_ShouldPass() {
+        // create
+        String partNameToFilter = STUDENT_NAMES[RANDOM.nextInt(STUDENT_NAMES.length)].toLowerCase();
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+        Grade randomGrade = Grade.A;
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getName().toLowerCase().contains(partNameToFilter) &&
+                        student.getAge() > 20 && student.getAge() < 45 &&
+                        student.getEnrollments().size() > 1 &&
+                        student.getEnrollments().stream()
+                                .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade()) &&
+                                        enrollment.getCourse().getName().equalsIgnoreCase(randomCourseName)))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(partNameToFilter);
+        filter.setAgeGreaterThan(20);
+        filter.setAgeLessThan(45);
+        filter.setEnrollmentsCountGreaterThan(1);
+        filter.setCourseName(randomCourseName);
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_enrolledInCourse_ShouldPass() {
+        // create
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> enrollment.getCourse().getName().toLowerCase().contains(randomCourseName.toLowerCase())))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName(randomCourseName);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_hasAnyGradeEqualsGiven_ShouldPass() {
+        // create
+        Grade randomGrade = Grade.C;
+
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade())))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    public void filterStudents_bySpecificGradeInGivenCourse_ShouldPass() {
+        // create
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+        Grade randomGrade = Grade.B;
+
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade()) &&
+                                enrollment.getCourse().getName().toLowerCase().contains(randomCourseName.toLowerCase())))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName(randomCourseName);
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<Student> students = studentService.findAll(filter);
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+
+    @Test
+    public void filterStudents_pagedByAge_ShouldPass() {
+        // create
+        int minAge = 25;
+        int count = (int) dbStudents.stream().filter(student -> student.getAge() > minAge).count();
+        int pageSize = 7;
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(minAge);
+
+        // test
+        Page<Student> firstPage = studentService.findAll(filter, PageRequest.of(0, pageSize, Sort.by("age")));
+
+        // assert
+        assertEquals(count, firstPage.getTotalElements());
+        assertEquals(Math.min(pageSize, count), firstPage.getNumberOfElements());
+        assertTrue(isSortedByAge(firstPage.getContent()));
+    }
+
+    @Test
+    public void filterStudents_scrollingByKeyset_ShouldVisitEveryMatchOnce() {
+        // create
+        int maxAge = 40;
+        int count = (int) dbStudents.stream().filter(student -> student.getAge() < maxAge).count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeLessThan(maxAge);
+
+        // test
+        Set<Long> visitedIds = new HashSet<>();
+        int visited = 0;
+        Window<Student> window = studentService.scroll(filter, ScrollPosition.keyset(), 10);
+        while (true) {
+            visited += window.size();
+            window.forEach(student -> visitedIds.add(student.getId()));
+            if (window.isEmpty() || !window.hasNext()) {
+                break;
+            }
+            window = studentService.scroll(filter, window.positionAt(window.size() - 1), 10);
+        }
+
+        // assert
+        assertEquals(count, visited);
+        assertEquals(count, visitedIds.size());
+    }
+
+    @Test
+    public void filterStudents_scrollingByKeysetWithCustomSort_ShouldKeepOrder() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        List<Student> students = new ArrayList<>();
+
+        // test
+        Window<Student> window = studentService.scroll(filter, Sort.by("age"), ScrollPosition.keyset(), 15);
+        while (true) {
+            students.addAll(window.getContent());
+            if (window.isEmpty() || !window.hasNext()) {
+                break;
+            }
+            window = studentService.scroll(filter, Sort.by("age"), window.positionAt(window.size() - 1), 15);
+        }
+
+        // assert
+        assertEquals(dbStudents.size(), students.size());
+        assertTrue(isSortedByAge(students));
+    }
+
+    @Test
+    public void filterStudents_scrollingByKeysetByIdDescending_ShouldNotAppendTheTieBreaker() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        List<Long> ids = new ArrayList<>();
+
+        // test
+        Window<Student> window = studentService.scroll(filter, Sort.by("id").descending(), ScrollPosition.keyset(), 15);
+        while (true) {
+            window.forEach(student -> ids.add(student.getId()));
+            if (window.isEmpty() || !window.hasNext()) {
+                break;
+            }
+            window = studentService.scroll(filter, Sort.by("id").descending(), window.positionAt(window.size() - 1), 15);
+        }
+
+        // assert
+        assertEquals(studentRepository.findAll().stream().map(Student::getId).sorted(Comparator.reverseOrder()).toList(), ids);
+    }
+
+    @Test
+    public void filterStudents_forEach_ShouldVisitEveryMatchOnce() {
+        // create
+        int minAge = 30;
+        int count = (int) dbStudents.stream().filter(student -> student.getAge() > minAge).count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(minAge);
+
+        // test
+        Set<Long> visitedIds = new HashSet<>();
+        studentService.forEach(filter, student -> visitedIds.add(student.getId()));
+
+        // assert
+        assertEquals(count, visitedIds.size());
+    }
+
+    @Test
+    public void forEach_nonPositiveClearInterval_ShouldFail() {
+        // test
+        InvalidDataAccessApiUsageException exception = assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> studentRepository.forEach((root, query, cb) -> null, 100, 0, student -> { }));
+
+        // assert
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    public void forEach_nonPositiveFetchSize_ShouldFail() {
+        // test
+        InvalidDataAccessApiUsageException exception = assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> studentRepository.forEach((root, query, cb) -> null, 0, 100, student -> { }));
+
+        // assert
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    public void filterStudents_stream_ShouldPass() {
+        // create
+        String partEmailToFilter = EMAIL_VENDORS[RANDOM.nextInt(EMAIL_VENDORS.length)];
+        int count = (int) dbStudents.stream().filter(student -> student.getEmail().contains(partEmailToFilter)).count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail(partEmailToFilter);
+
+        // test
+        long streamed;
+        try (Stream<Student> students = studentService.stream(filter)) {
+            streamed = students.count();
+        }
+
+        // assert
+        assertEquals(count, streamed);
+    }
+
+    @Test
+    public void filterStudents_streamWithoutTransaction_ShouldFail() {
+        assertThrows(IllegalTransactionStateException.class, () -> studentService.stream(new StudentFilter()));
+    }
+
+    @Test
+    public void filterStudentSummaries_byCourseAndGrade_ShouldPass() {
+        // create
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+        Grade randomGrade = Grade.D;
+        Map<Long, Integer> expectedEnrollmentCounts = dbStudents.stream()
+                .filter(student -> student.getEnrollments().stream()
+                        .anyMatch(enrollment -> randomGrade.equals(enrollment.getGrade()) &&
+                                enrollment.getCourse().getName().equals(randomCourseName)))
+                .collect(Collectors.toMap(Student::getId, student -> student.getEnrollments().size()));
+
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName(randomCourseName);
+        filter.setCourseGrade(randomGrade);
+
+        // test
+        List<StudentSummary> summaries = studentService.findAllSummaries(filter, Sort.by("name"));
+
+        // assert
+        assertEquals(expectedEnrollmentCounts.size(), summaries.size());
+        summaries.forEach(summary ->
+                assertEquals(expectedEnrollmentCounts.get(summary.id()), summary.enrollmentCount()));
+    }
+
+    @Test
+    public void filterStudentSummaries_paged_ShouldPass() {
+        // create
+        int maxAge = 35;
+        int count = (int) dbStudents.stream().filter(student -> student.getAge() < maxAge).count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeLessThan(maxAge);
+
+        // test
+        Page<StudentSummary> page = studentService.findAllSummaries(filter, PageRequest.of(1, 5, Sort.by("id")));
+
+        // assert
+        assertEquals(count, page.getTotalElements());
+        assertEquals(Math.max(0, Math.min(5, count - 5)), page.getNumberOfElements());
+    }
+
+    @Test
+    public void filterStudentSummaries_pagedWithoutSort_ShouldPageById() {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeLessThan(35);
+        List<StudentSummary> all = studentService.findAllSummaries(filter, Sort.by("id"));
+
+        // test
+        List<StudentSummary> paged = new ArrayList<>();
+        for (int page = 0; page * 5 < all.size(); page++) {
+            paged.addAll(studentService.findAllSummaries(filter, PageRequest.of(page, 5)).getContent());
+        }
+
+        // assert
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void countStudents_byCourseAndAge_ShouldPass() {
+        // create
+        String randomCourseName = COURSE_NAMES[RANDOM.nextInt(COURSE_NAMES.length)];
+        long count = dbStudents.stream()
+                .filter(student -> student.getAge() > 25 && student.getEnrollments().stream()
+                        .anyMatch(enrollment -> enrollment.getCourse().getName().equals(randomCourseName)))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(25);
+        filter.setCourseName(randomCourseName);
+
+        // test & assert
+        assertEquals(count, studentService.count(filter));
+        assertEquals(count > 0, studentService.exists(filter));
+        assertEquals(dbStudents.size(), studentService.count(new StudentFilter()));
+    }
+
+    @Test
+    public void facets_byGradeAndAge_ShouldCountDistinctMatchingStudents() {
+        // create
+        List<Student> matching = dbStudents.stream()
+                .filter(student -> student.getAge() > 20 && student.getEnrollments().stream()
+                        .anyMatch(enrollment -> Grade.B.equals(enrollment.getGrade())))
+                .toList();
+        Map<Grade, Long> grades = matching.stream()
+                .flatMap(student -> student.getEnrollments().stream().map(Enrollment::getGrade).distinct())
+                .collect(Collectors.groupingBy(grade -> grade, Collectors.counting()));
+        Map<String, Long> courses = matching.stream()
+                .flatMap(student -> student.getEnrollments().stream().map(enrollment -> enrollment.getCourse().getName()).distinct())
+                .collect(Collectors.groupingBy(name -> name, Collectors.counting()));
+        Map<Integer, Long> ageBuckets = matching.stream()
+                .collect(Collectors.groupingBy(student -> student.getAge() / 5 * 5, Collectors.counting()));
+
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(20);
+        filter.setCourseGrade(Grade.B);
+
+        // test
+        StudentFacets facets = studentService.facets(filter);
+
+        // assert
+        assertEquals(matching.size(), facets.students());
+        assertEquals(grades, facets.grades());
+        assertEquals(courses, facets.courses());
+        assertEquals(ageBuckets, facets.ageBuckets());
+    }
+
+    @Test
+    public void existsStudent_invalidEmail_ShouldReturnFalse() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("nonexistent-email@example.com");
+
+        assertEquals(false, studentService.exists(filter));
+        assertEquals(0, studentService.count(filter));
+    }
+
+    @Test
+    @Transactional
+    public void enrollmentCount_keptInSyncOnInsertAndDelete_ShouldPass() {
+        // create
+        Student student = studentRepository.save(new Student(null, "Count Keeper", 30, "count.keeper@gmail.com", null));
+        Course course = courseRepository.findAll().get(0);
+
+        // test
+        Enrollment first = enrollmentRepository.save(new Enrollment(null, student, course, Grade.A, "first"));
+        enrollmentRepository.save(new Enrollment(null, student, course, Grade.B, "second"));
+        enrollmentRepository.delete(first);
+        enrollmentRepository.flush();
+
+        // assert
+        StudentFilter filter = new StudentFilter();
+        filter.setName("Count Keeper");
+        filter.setEnrollmentsCountGreaterThan(0);
+        filter.setEnrollmentsCountLessThan(2);
+        assertEquals(1, studentService.findAll(filter).size());
+    }
+
+    @Test
+    public void saveStudent_trigramIndexDisabled_ShouldNotWriteSearchTokens() {
+        // test
+        Student student = studentRepository.save(new Student(null, "Untokenized Student", 20, "untokenized@zoho.com", null));
+        Number tokens = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM student_search_token")
+                .getSingleResult();
+        studentRepository.delete(student);
+
+        // assert
+        assertEquals(0, tokens.intValue());
+    }
+
+    @Test
+    public void filterStudents_fetchPlanNone_ShouldLeaveEnrollmentsLazy() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(Grade.A);
+
+        List<Student> students = studentService.findAll(filter, FetchPlan.NONE);
+
+        assertTrue(students.stream().noneMatch(student -> Hibernate.isInitialized(student.getEnrollments())));
+    }
+
+    @Test
+    public void filterStudents_fetchPlanEnrollments_ShouldLoadEnrollmentsButNotCourses() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseGrade(Grade.B);
+
+        List<Student> students = studentService.findAll(filter, FetchPlan.ENROLLMENTS);
+
+        assertEquals(studentService.findAll(filter).size(), students.size());
+        assertEquals(students.size(), new HashSet<>(students).size());
+        assertTrue(students.stream().allMatch(student -> Hibernate.isInitialized(student.getEnrollments())));
+        assertTrue(students.stream().flatMap(student -> student.getEnrollments().stream())
+                .noneMatch(enrollment -> Hibernate.isInitialized(enrollment.getCourse())));
+    }
+
+    @Test
+    public void filterStudents_fetchPlanEnrollmentsAndCourse_ShouldLoadWholeGraphWithoutDuplicates() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName(COURSE_NAMES[0]);
+        filter.setEnrollmentsCountGreaterThan(1);
+
+        List<Student> students = studentService.findAll(filter, FetchPlan.ENROLLMENTS_AND_COURSE);
+
+        assertEquals(studentService.findAll(filter).size(), students.size());
+        assertEquals(students.size(), new HashSet<>(students).size());
+        assertTrue(students.stream().flatMap(student -> student.getEnrollments().stream())
+                .allMatch(enrollment -> Hibernate.isInitialized(enrollment.getCourse())));
+    }
+
+    @Test
+    public void joinQueries_ShouldNotReturnDuplicateStudents() {
+        List<Student> byGrade = studentRepository.findByEnrollmentsGrade(Grade.A);
+        List<Student> byCourse = studentRepository.findByEnrollmentsCourseNameContainingIgnoreCase("a");
+        List<Student> enrolled = studentRepository.findByEnrollmentsNotNull();
+
+        assertEquals(new HashSet<>(byGrade).size(), byGrade.size());
+        assertEquals(new HashSet<>(byCourse).size(), byCourse.size());
+        assertEquals(new HashSet<>(enrolled).size(), enrolled.size());
+    }
+
+    private static boolean isSortedByAge(List<Student> students) {
+        for (int i = 1; i < students.size(); i++) {
+            if (students.get(i - 1).getAge() > students.get(i).getAge()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /*** catch edge cases ***/
+
+    @Test
+    public void filterStudents_emptyFilter_ShouldReturnAllStudents() {
+        StudentFilter filter = new StudentFilter(); // Empty filter
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(dbStudents.size(), students.size());
+    }
+
+    @Test
+    public void filterStudents_nullFilter_ShouldReturnAllStudents() {
+        List<Student> students = studentService.findAll(null);
+
+        assertEquals(dbStudents.size(), students.size());
+    }
+
+    @Test
+    public void filterStudents_minimumAge_ShouldPass() {
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(Integer.MIN_VALUE);
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(dbStudents.size(), students.size()); // All students match minimum age
+    }
+
+    @Test
+    public void filterStudents_invalidCourseName_ShouldReturnNoResults() {
+        StudentFilter filter = new StudentFilter();
+        filter.setCourseName("Nonexistent Course");
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(0, students.size()); // No matches
+    }
+
+    @Test
+    public void filterStudents_invalidEmail_ShouldReturnNoResults() {
+        StudentFilter filter = new StudentFilter();
+        filter.setEmail("nonexistent-email@example.com");
+
+        List<Student> students = studentService.findAll(filter);
+
+        assertEquals(0, students.size()); // No matches
+    }
+
+}
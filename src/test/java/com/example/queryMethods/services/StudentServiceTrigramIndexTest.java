@@ -0,0 +1,86 @@
+package com.example.queryMethods.services;
+
+import com.example.queryMethods.models.entity.Student;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.repositories.specifications.StudentSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "students.search.trigram-index-enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:trigram-index-test"
+})
+public class StudentServiceTrigramIndexTest {
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    private List<Student> dbStudents = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        if(studentRepository.count() == 0) {
+            List<Student> students = initStudents();
+            studentRepository.saveAll(students);
+            courseRepository.deleteAll();
+            courseRepository.saveAll(initCoursesWithEnrollments(students));
+        }
+        if(dbStudents.isEmpty()) {
+            dbStudents = studentRepository.findByEnrollmentsNotNull();
+        }
+    }
+
+    @Test
+    public void filterStudents_throughTrigramIndex_ShouldMatchLikeSearch() {
+        // create
+        String partNameToFilter = STUDENT_NAMES[RANDOM.nextInt(STUDENT_NAMES.length)].substring(1);
+        String partEmailToFilter = EMAIL_VENDORS[RANDOM.nextInt(EMAIL_VENDORS.length)].toUpperCase();
+        int count = (int) dbStudents.stream()
+                .filter(student -> student.getName().toLowerCase().contains(partNameToFilter.toLowerCase()) &&
+                        student.getEmail().toLowerCase().contains(partEmailToFilter.toLowerCase()))
+                .count();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName(partNameToFilter);
+        filter.setEmail(partEmailToFilter);
+
+        // test
+        List<Student> students = studentRepository.findAll(StudentSpecifications.fromFilter(filter, true));
+
+        // assert
+        assertEquals(count, students.size());
+    }
+
+    @Test
+    @Transactional
+    public void filterStudents_throughTrigramIndexAfterRename_ShouldPass() {
+        // create
+        Student student = studentRepository.findById(dbStudents.get(0).getId()).orElseThrow();
+        student.setName("Zyxwvu Renamed");
+        studentRepository.flush();
+
+        StudentFilter filter = new StudentFilter();
+        filter.setName("xwvu ren");
+
+        // test
+        List<Student> students = studentRepository.findAll(StudentSpecifications.fromFilter(filter, true));
+
+        // assert
+        assertEquals(1, students.size());
+        assertEquals(student.getId(), students.get(0).getId());
+    }
+}
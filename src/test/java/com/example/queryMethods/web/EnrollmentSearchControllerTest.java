@@ -0,0 +1,91 @@
+package com.example.queryMethods.web;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.EnrollmentFilter;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.EnrollmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EnrollmentSearchControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @BeforeEach
+    public void setup() {
+        if(studentRepository.count() == 0) {
+            var students = initStudents();
+            studentRepository.saveAll(students);
+            courseRepository.deleteAll();
+            courseRepository.saveAll(initCoursesWithEnrollments(students));
+        }
+    }
+
+    @Test
+    public void search_ShouldBindTheFilterAndThePage() throws Exception {
+        // create
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setCourseName(COURSE_NAMES[1]);
+        filter.setGrade(Grade.F);
+        long total = enrollmentService.count(filter);
+        Long firstId = enrollmentService.findAll(filter, Pageable.unpaged()).getContent().get(0).id();
+
+        // test & assert
+        mockMvc.perform(get("/enrollments/search")
+                        .param("courseName", COURSE_NAMES[1])
+                        .param("grade", "F")
+                        .param("size", "1")
+                        .param("sort", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(firstId))
+                .andExpect(jsonPath("$.content[0].courseName").value(COURSE_NAMES[1]))
+                .andExpect(jsonPath("$.page.totalElements").value(total));
+    }
+
+    @Test
+    public void count_ShouldCountTheMatchingEnrollments() throws Exception {
+        // create
+        EnrollmentFilter filter = new EnrollmentFilter();
+        filter.setGrade(Grade.A);
+
+        // test & assert
+        mockMvc.perform(get("/enrollments/count").param("grade", "A"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(String.valueOf(enrollmentService.count(filter))));
+    }
+
+    @Test
+    public void searchCourses_ShouldReturnCourseSummaries() throws Exception {
+        // test & assert
+        mockMvc.perform(get("/courses/search").param("name", "advanced").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name").value(hasItem(COURSE_NAMES[1])))
+                .andExpect(jsonPath("$.content[*].enrollments").doesNotExist());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.queryMethods.web;
+
+import com.example.queryMethods.models.entity.Grade;
+import com.example.queryMethods.models.filter.StudentFilter;
+import com.example.queryMethods.models.projection.StudentSummary;
+import com.example.queryMethods.repositories.CourseRepository;
+import com.example.queryMethods.repositories.StudentRepository;
+import com.example.queryMethods.service.StudentServiceThirdVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.queryMethods.InitialTestData.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// a small page size, so the streamed results span several keyset pages
+@SpringBootTest(properties = "students.search.stream-fetch-size=7")
+@AutoConfigureMockMvc
+public class StudentSearchControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    StudentServiceThirdVersion studentService;
+
+    @BeforeEach
+    public void setup() {
+        if(studentRepository.count() == 0) {
+            var students = initStudents();
+            studentRepository.saveAll(students);
+            courseRepository.deleteAll();
+            courseRepository.saveAll(initCoursesWithEnrollments(students));
+        }
+    }
+
+    @Test
+    public void search_withoutFilter_ShouldStreamEveryStudentOrderedById() throws Exception {
+        // test
+        List<StudentSummary> summaries = search("/students/search");
+
+        // assert
+        assertEquals(studentService.findAllSummaries(new StudentFilter(), Sort.by("id")), summaries);
+    }
+
+    @Test
+    public void search_ShouldBindTheFilterFromTheQueryParameters() throws Exception {
+        // create
+        StudentFilter filter = new StudentFilter();
+        filter.setAgeGreaterThan(20);
+        filter.setCourseName(COURSE_NAMES[0]);
+        filter.setCourseGrade(Grade.A);
+
+        // test
+        List<StudentSummary> summaries = search("/students/search?ageGreaterThan=20&courseName=" + COURSE_NAMES[0]
+                + "&courseGrade=A");
+
+        // assert
+        assertEquals(studentService.findAllSummaries(filter, Sort.by("id")), summaries);
+    }
+
+    @Test
+    public void search_matchingNobody_ShouldStreamAnEmptyBody() throws Exception {
+        // test
+        List<StudentSummary> summaries = search("/students/search?email=nonexistent-email@example.com");
+
+        // assert
+        assertEquals(List.of(), summaries);
+    }
+
+    private List<StudentSummary> search(String uri) throws Exception {
+        MvcResult started = mockMvc.perform(get(uri).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<StudentSummary> summaries = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                summaries.add(objectMapper.readValue(line, StudentSummary.class));
+            }
+        }
+        return summaries;
+    }
+}